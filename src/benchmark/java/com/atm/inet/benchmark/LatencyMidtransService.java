@@ -0,0 +1,55 @@
+package com.atm.inet.benchmark;
+
+import com.atm.inet.model.response.PaymentResponse;
+import com.atm.inet.service.payment.MidtransService;
+import com.atm.inet.service.payment.PaymentGatewayGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.UUID;
+
+/**
+ * Stands in for Midtrans during load runs: answers Snap and status calls after a configurable delay
+ * instead of calling the sandbox. Stays out of the way when the midtrans-stub profile routes calls to
+ * {@link com.atm.inet.stub.MidtransStubServer} over HTTP.
+ */
+@Service
+@Primary
+@Profile("benchmark & !midtrans-stub")
+public class LatencyMidtransService extends MidtransService {
+
+    @Value("${icafe.benchmark.midtrans-latency-millis:200}")
+    private long latencyMillis;
+
+    public LatencyMidtransService(@Qualifier("midtransRestTemplate") RestTemplate midtransRestTemplate, PaymentGatewayGuard paymentGatewayGuard) {
+        super(midtransRestTemplate, paymentGatewayGuard);
+    }
+
+    @Override
+    public PaymentResponse createSnapTransaction(String transactionRequest) {
+        pause();
+        String token = UUID.randomUUID().toString();
+        return PaymentResponse.builder()
+                .token(token)
+                .redirectUrl("https://app.sandbox.midtrans.com/snap/v2/vtweb/" + token)
+                .build();
+    }
+
+    @Override
+    public String getTransactionById(String id) {
+        pause();
+        return "{\"order_id\":\"" + id + "\",\"transaction_status\":\"pending\"}";
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(latencyMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.atm.inet.benchmark;
+
+import com.atm.inet.InetApplication;
+import com.atm.inet.entity.computer.*;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.repository.ComputerRepository;
+import com.atm.inet.repository.TypePriceRepository;
+import com.atm.inet.repository.TypeRepository;
+import com.atm.inet.stub.MidtransStubServer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives POST /api/v1/orders against a PostgreSQL database and {@link LatencyMidtransService}, then prints
+ * throughput and p50/p99/p999 latency. Every worker logs in as its own customer and books consecutive
+ * one-hour slots on its own computer, so the numbers measure the booking path rather than 409s.
+ * <p>
+ * Options are passed as key=value arguments: threads, requests (per thread), warmup (per thread), midtransLatencyMillis.
+ * jdbcUrl, dbUsername and dbPassword point at the database; the schema is created and dropped with the run, so use a
+ * scratch database. It has to be PostgreSQL, the expiry sweep, lifecycle tick, rollups and webhook inbox use
+ * RETURNING, ON CONFLICT and LOCK TABLE.
+ * With midtransStub=true the real {@link com.atm.inet.service.payment.MidtransService} talks HTTP to a
+ * {@link MidtransStubServer} instead, which also settles each order and sends its webhook after stubSettlementMillis;
+ * stubErrorRate is the fraction of gateway calls answered with a 500.
+ */
+public class OrderCreateLoadHarness {
+
+    private static final DateTimeFormatter BOOKING_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String STUB_SERVER_KEY = "bench-server-key";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        int threads = Integer.parseInt(options.getOrDefault("threads", "16"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "500"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "100"));
+        String midtransLatency = options.getOrDefault("midtransLatencyMillis", "200");
+        boolean useStub = Boolean.parseBoolean(options.getOrDefault("midtransStub", "false"));
+
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0",
+                "--spring.datasource.url=" + options.getOrDefault("jdbcUrl", "jdbc:postgresql://localhost:5432/icafe_bench"),
+                "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                "--spring.datasource.username=" + options.getOrDefault("dbUsername", "postgres"),
+                "--spring.datasource.password=" + options.getOrDefault("dbPassword", "postgres"),
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--icafe.benchmark.midtrans-latency-millis=" + midtransLatency));
+
+        MidtransStubServer stub = null;
+        if (useStub) {
+            stub = new MidtransStubServer(STUB_SERVER_KEY, Long.parseLong(midtransLatency),
+                    Double.parseDouble(options.getOrDefault("stubErrorRate", "0")),
+                    Long.parseLong(options.getOrDefault("stubSettlementMillis", "5000")),
+                    "settlement").start(0);
+            appArgs.add("--icafe.midtrans.server-key=" + STUB_SERVER_KEY);
+            appArgs.add("--icafe.midtrans.snap-url=" + stub.getSnapUrl());
+            appArgs.add("--icafe.midtrans.api-url=" + stub.getApiUrl());
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(InetApplication.class)
+                .profiles(useStub ? new String[]{"benchmark", "midtrans-stub"} : new String[]{"benchmark"})
+                .run(appArgs.toArray(String[]::new));
+
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            if (stub != null) stub.setNotificationUrl(baseUrl + "/api/v1/midtrans");
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            HttpClient httpClient = HttpClient.newHttpClient();
+
+            List<String> computerIds = seedComputers(context, threads);
+            List<Worker> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                String email = "bench" + i + "@mail.com";
+                post(httpClient, baseUrl + "/api/v1/auth/register", null,
+                        "{\"firstName\":\"Bench\",\"lastName\":\"" + i + "\",\"email\":\"" + email + "\",\"phoneNumber\":\"0800" + i + "\",\"password\":\"password\"}");
+                JsonNode login = objectMapper.readTree(post(httpClient, baseUrl + "/api/v1/auth/login", null,
+                        "{\"email\":\"" + email + "\",\"password\":\"password\"}").body()).get("data");
+                workers.add(new Worker(login.get("id").asText(), login.get("token").asText(), computerIds.get(i)));
+            }
+
+            LocalDateTime firstSlot = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+            run(httpClient, baseUrl, workers, 0, warmup, firstSlot);
+
+            long started = System.nanoTime();
+            Result result = run(httpClient, baseUrl, workers, warmup, requests, firstSlot);
+            double elapsedSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+            report(threads, result, elapsedSeconds, midtransLatency);
+            if (stub != null) System.out.printf("midtrans stub  %s%n", stub.getCounters());
+        } finally {
+            context.close();
+            if (stub != null) stub.close();
+        }
+    }
+
+    private static List<String> seedComputers(ConfigurableApplicationContext context, int count) {
+        TypeRepository typeRepository = context.getBean(TypeRepository.class);
+        TypePriceRepository typePriceRepository = context.getBean(TypePriceRepository.class);
+        ComputerRepository computerRepository = context.getBean(ComputerRepository.class);
+
+        ComputerImage image = ComputerImage.builder().name("vip.png").contentType("image/png").path("/images/vip.png").size(1L).build();
+        Type type = Type.builder().category(ECategory.VIP).typePrices(new ArrayList<>()).computerImage(image).build();
+        image.setType(type);
+        type = typeRepository.save(type);
+        typePriceRepository.save(TypePrice.builder().type(type).price(10_000L).isActive(true).build());
+
+        List<String> computerIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Computer computer = computerRepository.save(Computer.builder()
+                    .name("Bench PC " + i)
+                    .code("BENCH-" + i)
+                    .status(EStatus.FREE)
+                    .specification(ComputerSpec.builder().processor("i7").ram("32GB").monitor("27\"").ssd("1TB").vga("RTX 4070").build())
+                    .type(type)
+                    .build());
+            computerIds.add(computer.getId());
+        }
+        return computerIds;
+    }
+
+    private static Result run(HttpClient httpClient, String baseUrl, List<Worker> workers, int firstSlot, int requests, LocalDateTime slotBase)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(workers.size());
+        long[][] latencies = new long[workers.size()][requests];
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(workers.size());
+
+        for (int w = 0; w < workers.size(); w++) {
+            Worker worker = workers.get(w);
+            long[] workerLatencies = latencies[w];
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < requests; i++) {
+                        String body = "{\"customerId\":\"" + worker.customerId + "\",\"computerId\":\"" + worker.computerId +
+                                "\",\"duration\":1,\"bookingDate\":\"" + slotBase.plusHours(firstSlot + i).format(BOOKING_FORMAT) + "\"}";
+                        long start = System.nanoTime();
+                        HttpResponse<String> response = post(httpClient, baseUrl + "/api/v1/orders", worker.token, body);
+                        workerLatencies[i] = System.nanoTime() - start;
+                        if (response.statusCode() != 201) failures.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        pool.shutdown();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).filter(latency -> latency > 0).sorted().toArray();
+        return new Result(all, failures.get());
+    }
+
+    private static HttpResponse<String> post(HttpClient httpClient, String url, String token, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) request.header("Authorization", "Bearer " + token);
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void report(int threads, Result result, double elapsedSeconds, String midtransLatency) {
+        long[] sorted = result.latencies;
+        System.out.printf("POST /api/v1/orders  threads=%d  requests=%d  failures=%d  midtransLatencyMillis=%s%n",
+                threads, sorted.length, result.failures, midtransLatency);
+        System.out.printf("throughput  %.1f req/s%n", sorted.length / elapsedSeconds);
+        System.out.printf("p50  %.2f ms%n", percentile(sorted, 0.50));
+        System.out.printf("p99  %.2f ms%n", percentile(sorted, 0.99));
+        System.out.printf("p999 %.2f ms%n", percentile(sorted, 0.999));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            for (String option : arg.split(",")) {
+                int separator = option.indexOf('=');
+                if (separator > 0) options.put(option.substring(0, separator).trim(), option.substring(separator + 1).trim());
+            }
+        }
+        return options;
+    }
+
+    private record Worker(String customerId, String token, String computerId) {
+    }
+
+    private record Result(long[] latencies, int failures) {
+    }
+}
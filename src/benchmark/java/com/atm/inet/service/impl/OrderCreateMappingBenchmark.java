@@ -0,0 +1,88 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.Customer;
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.computer.ComputerImage;
+import com.atm.inet.entity.computer.ComputerSpec;
+import com.atm.inet.entity.computer.Type;
+import com.atm.inet.entity.computer.TypePrice;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.model.response.CustomerResponse;
+import com.atm.inet.model.response.OrderDetailResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation-heavy part of the booking path: rebuilding the customer from its DTO for group bookings
+ * and building the OrderDetailResponse that feeds the Snap payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderCreateMappingBenchmark {
+
+    private CustomerResponse customerResponse;
+    private OrderDetail orderDetail;
+
+    @Setup
+    public void setUp() {
+        customerResponse = CustomerResponse.builder()
+                .id("customer-1")
+                .firstName("First")
+                .lastName("Last")
+                .email("bench@mail.com")
+                .phoneNumber("08123456789")
+                .isMember(false)
+                .build();
+
+        Type type = Type.builder()
+                .id("type-1")
+                .category(ECategory.VIP)
+                .typePrices(new ArrayList<>())
+                .computerImage(ComputerImage.builder().id("image-1").path("/images/vip.png").build())
+                .build();
+        TypePrice price = TypePrice.builder().id("price-0").type(type).price(10_000L).isActive(true).build();
+        Computer computer = Computer.builder()
+                .id("computer-1")
+                .name("PC 1")
+                .code("VIP-01")
+                .status(EStatus.FREE)
+                .specification(ComputerSpec.builder().id("spec-1").processor("i7").ram("32GB").build())
+                .type(type)
+                .build();
+
+        Customer customer = OrderDetailServiceImpl.toCustomer(customerResponse);
+        LocalDateTime bookingDate = LocalDateTime.now().plusDays(1);
+        orderDetail = OrderDetail.builder()
+                .id("order-1")
+                .customer(customer)
+                .computer(computer)
+                .typePrice(price)
+                .duration(3)
+                .totalPrice(30_000L)
+                .status(EStatusOrder.PENDING)
+                .bookingDate(bookingDate)
+                .endBookingDate(bookingDate.plusHours(3))
+                .transactionDate(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public Customer rebuildCustomer() {
+        return OrderDetailServiceImpl.toCustomer(customerResponse);
+    }
+
+    @Benchmark
+    public OrderDetailResponse buildResponse() {
+        return OrderDetailServiceImpl.toResponse(orderDetail, ECategory.VIP.name());
+    }
+}
@@ -0,0 +1,140 @@
+package com.atm.inet.configuration;
+
+import com.atm.inet.service.payment.MidtransClientMetrics;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated HTTP client for Midtrans. Connections are pooled and kept alive, so most Snap and status calls
+ * reuse an open TLS session instead of paying for a new handshake, and every phase has a timeout so a hung
+ * gateway cannot hold a request thread forever.
+ */
+@Component
+public class MidtransClientConfiguration {
+
+    @Value("${icafe.midtrans.http.max-total:50}")
+    private int maxTotal;
+
+    @Value("${icafe.midtrans.http.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${icafe.midtrans.http.connect-timeout-millis:2000}")
+    private int connectTimeoutMillis;
+
+    @Value("${icafe.midtrans.http.read-timeout-millis:5000}")
+    private int readTimeoutMillis;
+
+    @Value("${icafe.midtrans.http.pool-timeout-millis:1000}")
+    private int poolTimeoutMillis;
+
+    @Value("${icafe.midtrans.http.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Value("${icafe.midtrans.http.idle-evict-seconds:30}")
+    private long idleEvictSeconds;
+
+    // upper bound on a pooled connection's life, so DNS changes on the Midtrans side are picked up
+    @Value("${icafe.midtrans.http.time-to-live-minutes:5}")
+    private long timeToLiveMinutes;
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient midtransHttpClient(MidtransClientMetrics metrics) {
+        PoolingHttpClientConnectionManager connectionManager = new InstrumentedConnectionManager(metrics, timeToLiveMinutes);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        // a pooled connection idle for a while is checked before reuse, the server may have closed it
+        connectionManager.setValidateAfterInactivity(2000);
+        metrics.bindPool(connectionManager);
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .setConnectionRequestTimeout(poolTimeoutMillis)
+                .build();
+
+        // Midtrans does not always send Keep-Alive, fall back to our own limit instead of keeping connections forever
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+        DefaultConnectionKeepAliveStrategy serverHint = DefaultConnectionKeepAliveStrategy.INSTANCE;
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy((response, context) -> {
+                    long hinted = serverHint.getKeepAliveDuration(response, context);
+                    return hinted > 0 ? Math.min(hinted, keepAliveMillis) : keepAliveMillis;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictSeconds, TimeUnit.SECONDS)
+                .disableCookieManagement()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate midtransRestTemplate(CloseableHttpClient midtransHttpClient, MidtransClientMetrics metrics) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(midtransHttpClient));
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                ClientHttpResponse response = execution.execute(request, body);
+                failed = response.getStatusCode().isError();
+                return response;
+            } finally {
+                metrics.recordRequest(System.nanoTime() - start, failed);
+            }
+        });
+        return restTemplate;
+    }
+
+    // times every lease so pool starvation shows up as wait time instead of unexplained latency
+    private static class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final MidtransClientMetrics metrics;
+
+        private InstrumentedConnectionManager(MidtransClientMetrics metrics, long timeToLiveMinutes) {
+            super(timeToLiveMinutes, TimeUnit.MINUTES);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest request = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        HttpClientConnection connection = request.get(timeout, unit);
+                        metrics.recordLease(System.nanoTime() - start);
+                        return connection;
+                    } catch (ConnectionPoolTimeoutException e) {
+                        metrics.recordLeaseTimeout();
+                        throw e;
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+}
@@ -13,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +22,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @Slf4j
 @RequiredArgsConstructor
@@ -105,6 +109,32 @@ public class ComputerController {
         );
     }
 
+    @GetMapping(path = "/available")
+    public ResponseEntity<CommonResponse<List<ComputerResponse>>> getAvailable(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String processor,
+            @RequestParam(required = false) String ram,
+            @RequestParam(required = false) String vga,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to
+    ) {
+        ComputerSearch dataSearch = ComputerSearch.builder()
+                .processor(processor)
+                .ram(ram)
+                .vga(vga)
+                .category(category)
+                .build();
+
+        List<ComputerResponse> computers = computerService.getAvailable(dataSearch, from, to);
+        return ResponseEntity.ok(
+                CommonResponse.<List<ComputerResponse>>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get available computers!")
+                        .data(computers)
+                        .build()
+        );
+    }
+
     @GetMapping(path = "/{id}")
     public ResponseEntity<CommonResponse<ComputerResponse>> getById(@PathVariable String id) {
         ComputerResponse computer = computerService.getById(id);
@@ -4,6 +4,7 @@ import com.atm.inet.model.common.CommonResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
@@ -34,4 +35,14 @@ public class ExceptionController {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(commonResponse);
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<?> responseStatusConflict(ObjectOptimisticLockingFailureException exception) {
+        CommonResponse<String> commonResponse = CommonResponse.<String>builder()
+                .statusCode(HttpStatus.CONFLICT.value())
+                .message("Data was modified concurrently, please try again")
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(commonResponse);
+    }
+
 }
@@ -0,0 +1,119 @@
+package com.atm.inet.controller;
+
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.model.common.CommonResponse;
+import com.atm.inet.model.response.MidtransClientStatsResponse;
+import com.atm.inet.model.response.OrderExpiryStatsResponse;
+import com.atm.inet.model.response.PaymentGatewayStatsResponse;
+import com.atm.inet.model.response.ReconciliationStatsResponse;
+import com.atm.inet.model.response.WebhookInboxStatsResponse;
+import com.atm.inet.service.ComputerLifecycleService;
+import com.atm.inet.service.OrderExpiryService;
+import com.atm.inet.service.PaymentReconciliationService;
+import com.atm.inet.service.WaitlistService;
+import com.atm.inet.service.WebhookInboxService;
+import com.atm.inet.service.payment.MidtransClientMetrics;
+import com.atm.inet.service.payment.PaymentGatewayGuard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/monitoring")
+@PreAuthorize("hasAnyRole('ADMIN')")
+public class MonitoringController {
+
+    private final OrderExpiryService orderExpiryService;
+    private final ComputerLifecycleService computerLifecycleService;
+    private final WaitlistService waitlistService;
+    private final MidtransClientMetrics midtransClientMetrics;
+    private final PaymentGatewayGuard paymentGatewayGuard;
+    private final WebhookInboxService webhookInboxService;
+    private final PaymentReconciliationService paymentReconciliationService;
+
+    @GetMapping(path = "/order-expiry")
+    public ResponseEntity<CommonResponse<OrderExpiryStatsResponse>> orderExpiry() {
+        OrderExpiryStatsResponse stats = orderExpiryService.getStats();
+        return ResponseEntity.ok(
+                CommonResponse.<OrderExpiryStatsResponse>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get order expiry stats")
+                        .data(stats)
+                        .build()
+        );
+    }
+
+    @GetMapping(path = "/computer-lifecycle")
+    public ResponseEntity<CommonResponse<Integer>> computerLifecycle() {
+        return ResponseEntity.ok(
+                CommonResponse.<Integer>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get pending computer lifecycle events")
+                        .data(computerLifecycleService.getPendingEvents())
+                        .build()
+        );
+    }
+
+    @GetMapping(path = "/waitlist")
+    public ResponseEntity<CommonResponse<Map<ECategory, Integer>>> waitlist() {
+        return ResponseEntity.ok(
+                CommonResponse.<Map<ECategory, Integer>>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get waitlist sizes")
+                        .data(waitlistService.getQueueSizes())
+                        .build()
+        );
+    }
+
+    @GetMapping(path = "/midtrans-client")
+    public ResponseEntity<CommonResponse<MidtransClientStatsResponse>> midtransClient() {
+        return ResponseEntity.ok(
+                CommonResponse.<MidtransClientStatsResponse>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get midtrans client stats")
+                        .data(midtransClientMetrics.snapshot())
+                        .build()
+        );
+    }
+
+    @GetMapping(path = "/payment-gateway")
+    public ResponseEntity<CommonResponse<PaymentGatewayStatsResponse>> paymentGateway() {
+        return ResponseEntity.ok(
+                CommonResponse.<PaymentGatewayStatsResponse>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get payment gateway stats")
+                        .data(paymentGatewayGuard.getStats())
+                        .build()
+        );
+    }
+
+    @GetMapping(path = "/webhook-inbox")
+    public ResponseEntity<CommonResponse<WebhookInboxStatsResponse>> webhookInbox() {
+        return ResponseEntity.ok(
+                CommonResponse.<WebhookInboxStatsResponse>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get webhook inbox stats")
+                        .data(webhookInboxService.getStats())
+                        .build()
+        );
+    }
+
+    @GetMapping(path = "/reconciliation")
+    public ResponseEntity<CommonResponse<ReconciliationStatsResponse>> reconciliation() {
+        return ResponseEntity.ok(
+                CommonResponse.<ReconciliationStatsResponse>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get payment reconciliation stats")
+                        .data(paymentReconciliationService.getStats())
+                        .build()
+        );
+    }
+
+}
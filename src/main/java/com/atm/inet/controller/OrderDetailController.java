@@ -3,18 +3,34 @@ package com.atm.inet.controller;
 
 import com.atm.inet.entity.OrderDetail;
 import com.atm.inet.model.common.CommonResponse;
+import com.atm.inet.model.common.CursorPage;
+import com.atm.inet.model.common.OrderDetailSearch;
+import com.atm.inet.model.common.PagingResponse;
+import com.atm.inet.model.request.GroupOrderRequest;
 import com.atm.inet.model.request.OrderDetailRequest;
 import com.atm.inet.model.response.OrderDetailResponse;
 import com.atm.inet.model.response.PaymentResponse;
+import com.atm.inet.model.response.ReconciliationStatsResponse;
+import com.atm.inet.service.IdempotencyService;
 import com.atm.inet.service.OrderDetailService;
+import com.atm.inet.service.OrderExpiryService;
+import com.atm.inet.service.OrderExportService;
+import com.atm.inet.service.PaymentOutboxService;
+import com.atm.inet.service.PaymentReconciliationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,12 +38,32 @@ import java.util.List;
 @RequestMapping(path = "/api/v1/orders")
 public class OrderDetailController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 128;
+
     private final OrderDetailService orderDetailService;
+    private final OrderExpiryService orderExpiryService;
+    private final PaymentOutboxService paymentOutboxService;
+    private final OrderExportService orderExportService;
+    private final IdempotencyService idempotencyService;
+    private final PaymentReconciliationService paymentReconciliationService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('CUSTOMER')")
-    public ResponseEntity<CommonResponse<PaymentResponse>> order(@RequestBody OrderDetailRequest request){
-        PaymentResponse paymentResponse = orderDetailService.create(request);
+    public ResponseEntity<CommonResponse<PaymentResponse>> order(
+            @RequestBody OrderDetailRequest request,
+            @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey
+    ){
+        PaymentResponse paymentResponse;
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            paymentResponse = orderDetailService.create(request);
+        } else {
+            if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key is too long");
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            paymentResponse = idempotencyService.execute(authentication.getName(), idempotencyKey, request,
+                    PaymentResponse.class, () -> orderDetailService.create(request));
+        }
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(
                         CommonResponse.<PaymentResponse>builder()
@@ -37,8 +73,21 @@ public class OrderDetailController {
                                 .build()
                 );
     }
-    
-    
+
+    @PostMapping(path = "/group")
+    @PreAuthorize("hasAnyRole('CUSTOMER')")
+    public ResponseEntity<CommonResponse<PaymentResponse>> groupOrder(@RequestBody GroupOrderRequest request){
+        PaymentResponse paymentResponse = orderDetailService.createGroup(request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(
+                        CommonResponse.<PaymentResponse>builder()
+                                .statusCode(HttpStatus.CREATED.value())
+                                .message("Successfully Create Group Order!")
+                                .data(paymentResponse)
+                                .build()
+                );
+    }
+
     @GetMapping(path = "/{id}")
     public ResponseEntity<CommonResponse<OrderDetail>> getById(@PathVariable String id){
         OrderDetail orderDetail = orderDetailService.findById(id);
@@ -50,33 +99,128 @@ public class OrderDetailController {
                         .build()
         );
     }
-    @GetMapping(path = "/my-list")
-    public ResponseEntity<CommonResponse<List<OrderDetailResponse>>> getAll() {
+    @GetMapping(path = "/export")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(name = "format", defaultValue = OrderExportService.FORMAT_NDJSON, required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to
+    ) {
+        if (!format.equalsIgnoreCase(OrderExportService.FORMAT_NDJSON) && !format.equalsIgnoreCase(OrderExportService.FORMAT_CSV))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format must be ndjson or csv");
+
+        LocalDateTime rangeFrom = from == null ? LocalDateTime.of(1970, 1, 1, 0, 0) : from;
+        LocalDateTime rangeTo = to == null ? LocalDateTime.now().plusYears(1) : to;
+        boolean csv = format.equalsIgnoreCase(OrderExportService.FORMAT_CSV);
+
+        StreamingResponseBody body = outputStream -> orderExportService.export(rangeFrom, rangeTo, format, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : new MediaType("application", "x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    @GetMapping(path = "/{id}/payment")
+    public ResponseEntity<CommonResponse<PaymentResponse>> getPayment(@PathVariable String id) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        List<OrderDetailResponse> orderDetails = orderDetailService.getAll(authentication);
+        PaymentResponse paymentResponse = paymentOutboxService.getPayment(id, authentication.getName());
 
-        return ResponseEntity.ok(
-                CommonResponse.<List<OrderDetailResponse>>builder()
-                        .statusCode(HttpStatus.OK.value())
-                        .message("Successfully get data")
-                        .data(orderDetails)
+        HttpStatus status = paymentResponse.getToken() == null ? HttpStatus.ACCEPTED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(
+                CommonResponse.<PaymentResponse>builder()
+                        .statusCode(status.value())
+                        .message(paymentResponse.getToken() == null ? "Payment is being prepared" : "Successfully get payment")
+                        .data(paymentResponse)
                         .build()
         );
     }
 
+    @GetMapping(path = "/my-list")
+    public ResponseEntity<CommonResponse<List<OrderDetailResponse>>> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20", required = false) Integer size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String computerId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to
+    ) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        OrderDetailSearch dataSearch = buildSearch(cursor, size, status, computerId, from, to);
+
+        CursorPage<OrderDetailResponse> orderDetails = orderDetailService.getAll(authentication, dataSearch);
+
+        return ResponseEntity.ok(generatePageResponse(orderDetails, dataSearch));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN')")
-    public ResponseEntity<CommonResponse<List<OrderDetailResponse>>> getAllByAdmin() {
-        List<OrderDetailResponse> orderDetails = orderDetailService.getAll();
+    public ResponseEntity<CommonResponse<List<OrderDetailResponse>>> getAllByAdmin(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20", required = false) Integer size,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String computerId,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime to
+    ) {
+        OrderDetailSearch dataSearch = buildSearch(cursor, size, status, computerId, from, to);
+
+        CursorPage<OrderDetailResponse> orderDetails = orderDetailService.getAll(dataSearch);
+
+        return ResponseEntity.ok(generatePageResponse(orderDetails, dataSearch));
+    }
+
+    @PostMapping(path = "/expire-stale")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<CommonResponse<List<String>>> expireStale() {
+        List<String> expiredIds = orderExpiryService.expireStalePending();
 
         return ResponseEntity.ok(
-                CommonResponse.<List<OrderDetailResponse>>builder()
+                CommonResponse.<List<String>>builder()
                         .statusCode(HttpStatus.OK.value())
-                        .message("Successfully get data")
-                        .data(orderDetails)
+                        .message("Successfully expire stale orders")
+                        .data(expiredIds)
                         .build()
         );
     }
 
+    @PostMapping(path = "/reconcile")
+    @PreAuthorize("hasAnyRole('ADMIN')")
+    public ResponseEntity<CommonResponse<ReconciliationStatsResponse>> reconcile() {
+        ReconciliationStatsResponse stats = paymentReconciliationService.trigger();
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                CommonResponse.<ReconciliationStatsResponse>builder()
+                        .statusCode(HttpStatus.ACCEPTED.value())
+                        .message("Payment reconciliation started")
+                        .data(stats)
+                        .build()
+        );
+    }
+
+    private OrderDetailSearch buildSearch(String cursor, Integer size, String status, String computerId, LocalDateTime from, LocalDateTime to) {
+        return OrderDetailSearch.builder()
+                .cursor(cursor)
+                .size(Math.max(1, Math.min(size, MAX_PAGE_SIZE)))
+                .status(status)
+                .computerId(computerId)
+                .from(from)
+                .to(to)
+                .build();
+    }
+
+    private CommonResponse<List<OrderDetailResponse>> generatePageResponse(CursorPage<OrderDetailResponse> page, OrderDetailSearch dataSearch) {
+        PagingResponse pagingResponse = PagingResponse.builder()
+                .size(dataSearch.getSize())
+                .nextCursor(page.getNextCursor())
+                .build();
+
+        return CommonResponse.<List<OrderDetailResponse>>builder()
+                .statusCode(HttpStatus.OK.value())
+                .message("Successfully get data")
+                .data(page.getContent())
+                .pagingResponse(pagingResponse)
+                .build();
+    }
 
 }
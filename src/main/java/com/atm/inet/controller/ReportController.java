@@ -0,0 +1,58 @@
+package com.atm.inet.controller;
+
+import com.atm.inet.model.common.CommonResponse;
+import com.atm.inet.model.response.RevenueReportResponse;
+import com.atm.inet.service.RevenueRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/reports")
+@PreAuthorize("hasAnyRole('ADMIN')")
+public class ReportController {
+
+    private final RevenueRollupService revenueRollupService;
+
+    @GetMapping(path = "/revenue")
+    public ResponseEntity<CommonResponse<List<RevenueReportResponse>>> revenue(
+            @RequestParam(name = "from") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate from,
+            @RequestParam(name = "to") @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate to,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "groupBy", defaultValue = "day") String groupBy
+    ) {
+        if (from.isAfter(to))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+
+        List<RevenueReportResponse> report = revenueRollupService.getReport(from, to, category, groupBy);
+        return ResponseEntity.ok(
+                CommonResponse.<List<RevenueReportResponse>>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get revenue report")
+                        .data(report)
+                        .build()
+        );
+    }
+
+    @PostMapping(path = "/rollups/rebuild")
+    public ResponseEntity<CommonResponse<String>> rebuildRollups() {
+        if (!revenueRollupService.startRebuild())
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Rollup rebuild is already running");
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(
+                CommonResponse.<String>builder()
+                        .statusCode(HttpStatus.ACCEPTED.value())
+                        .message("Rollup rebuild started")
+                        .build()
+        );
+    }
+
+}
@@ -3,11 +3,14 @@ package com.atm.inet.controller;
 import com.atm.inet.entity.computer.Type;
 import com.atm.inet.model.common.CommonResponse;
 import com.atm.inet.model.request.TypeRequest;
+import com.atm.inet.model.response.PriceQuoteResponse;
 import com.atm.inet.model.response.TypeResponse;
+import com.atm.inet.service.PricingService;
 import com.atm.inet.service.TypeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,6 +28,7 @@ import java.util.List;
 public class TypeController {
 
     private final TypeService typeService;
+    private final PricingService pricingService;
 
     @GetMapping
     public ResponseEntity<CommonResponse<List<TypeResponse>>> findAll() {
@@ -49,6 +54,23 @@ public class TypeController {
         );
     }
 
+    @GetMapping("/{id}/quote")
+    public ResponseEntity<CommonResponse<PriceQuoteResponse>> quote(
+            @PathVariable(name = "id") String id,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime start,
+            @RequestParam Integer duration,
+            @RequestParam(defaultValue = "false") Boolean member
+    ) {
+        PriceQuoteResponse quote = pricingService.quote(id, start, duration, member);
+        return ResponseEntity.ok(
+                CommonResponse.<PriceQuoteResponse>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully get price quote")
+                        .data(quote)
+                        .build()
+        );
+    }
+
     @PutMapping
     public ResponseEntity<?> update(
             @RequestBody TypeRequest request,
@@ -0,0 +1,49 @@
+package com.atm.inet.controller;
+
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.model.common.CommonResponse;
+import com.atm.inet.service.WaitlistService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "/api/v1/waitlist")
+@PreAuthorize("hasAnyRole('CUSTOMER')")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @GetMapping(path = "/{category}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter join(@PathVariable String category, Authentication authentication) {
+        return waitlistService.join(parseCategory(category), authentication.getName());
+    }
+
+    @DeleteMapping(path = "/{category}")
+    public ResponseEntity<CommonResponse<String>> leave(@PathVariable String category, Authentication authentication) {
+        waitlistService.leave(parseCategory(category), authentication.getName());
+        return ResponseEntity.ok(
+                CommonResponse.<String>builder()
+                        .statusCode(HttpStatus.OK.value())
+                        .message("Successfully left the waitlist")
+                        .data(category.toUpperCase())
+                        .build()
+        );
+    }
+
+    private ECategory parseCategory(String category) {
+        try {
+            return ECategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown category " + category);
+        }
+    }
+
+}
@@ -1,8 +1,8 @@
 package com.atm.inet.controller;
 
-import com.atm.inet.service.OrderDetailService;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.atm.inet.model.request.MidtransNotification;
+import com.atm.inet.service.WebhookInboxService;
+import com.atm.inet.service.payment.MidtransService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -17,30 +17,20 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping(path = "/api/v1/midtrans")
 public class WebhookController {
 
-    private final OrderDetailService orderDetailService;
+    private final WebhookInboxService webhookInboxService;
+    private final MidtransService midtransService;
 
     @PostMapping()
     public ResponseEntity<String> midtransWebhook(@RequestBody String requestBody) {
-        String transactionId = extractTransactionIdFromRequestBody(requestBody);
-        log.warn("INFO FROM CONTROLLER: {}", requestBody);
+        log.info("Midtrans notification: {}", requestBody);
 
+        // the notification carries the status, once the signature checks out there is no need to ask Midtrans again
+        MidtransNotification notification = midtransService.parseNotification(requestBody);
+        midtransService.verifySignature(notification);
 
-
-            String updatedTransactionStatus = orderDetailService.updateStatus(transactionId);
-            return ResponseEntity.ok(updatedTransactionStatus);
-    }
-
-    private String extractTransactionIdFromRequestBody(String requestBody) {
-        try {
-            JsonObject jsonObject = JsonParser.parseString(requestBody).getAsJsonObject();
-            if (jsonObject.has("order_id")) {
-                return jsonObject.get("order_id").getAsString();
-            } else {
-                throw new IllegalArgumentException("Field 'order_id' not found in the request body");
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Failed to extract transaction ID from the request body", e);
-        }
+        // applied by the inbox workers, Midtrans gets its 200 without waiting on the database
+        webhookInboxService.accept(notification, requestBody);
+        return ResponseEntity.ok(notification.getTransactionStatus());
     }
 
 }
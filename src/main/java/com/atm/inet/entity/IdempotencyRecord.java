@@ -0,0 +1,38 @@
+package com.atm.inet.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "t_idempotency_key", indexes = {
+        @Index(name = "idx_idempotency_key_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    // requester name and Idempotency-Key header, so two users can never collide on a key
+    @Id
+    private String id;
+
+    @Column(name = "fingerprint", nullable = false)
+    private String fingerprint;
+
+    // null while the first request is still running
+    @Column(name = "response", columnDefinition = "text")
+    private String response;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+}
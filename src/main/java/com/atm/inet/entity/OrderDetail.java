@@ -20,7 +20,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "t_order_detail")
+@Table(name = "t_order_detail", indexes = {
+        @Index(name = "idx_order_detail_status_transaction_date", columnList = "order_status, transaction_date"),
+        @Index(name = "idx_order_detail_transaction_date_id", columnList = "transaction_date, id"),
+        @Index(name = "idx_order_detail_customer_transaction_date_id", columnList = "customer_id, transaction_date, id"),
+        @Index(name = "idx_order_detail_computer_transaction_date_id", columnList = "computer_id, transaction_date, id"),
+        @Index(name = "idx_order_detail_group_id", columnList = "group_id")
+})
 public class OrderDetail {
 
     @GenericGenerator(name = "system-uuid", strategy = "uuid2")
@@ -40,6 +46,10 @@ public class OrderDetail {
 
     private Integer duration;
 
+    // priced by the pricing engine at checkout, null for orders placed before it
+    @Column(name = "total_price")
+    private Long totalPrice;
+
     @ManyToOne
     @JoinColumn(name = "type_price_id")
     private TypePrice typePrice;
@@ -60,4 +70,8 @@ public class OrderDetail {
     @Enumerated(EnumType.STRING)
     private EStatusOrder status;
 
+    // shared by every seat of a group booking and used as the Snap order_id
+    @Column(name = "group_id")
+    private String groupId;
+
 }
@@ -0,0 +1,59 @@
+package com.atm.inet.entity;
+
+import com.atm.inet.entity.constant.EOutboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "t_payment_outbox", indexes = {
+        @Index(name = "idx_payment_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class PaymentOutbox {
+
+    @GenericGenerator(name = "system-uuid", strategy = "uuid2")
+    @GeneratedValue(generator = "system-uuid")
+    @Id
+    private String id;
+
+    @Column(name = "order_id", unique = true, nullable = false)
+    private String orderId;
+
+    @Column(name = "requested_by")
+    private String requestedBy;
+
+    @Column(name = "payload", columnDefinition = "text", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private EOutboxStatus status;
+
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "token")
+    private String token;
+
+    @Column(name = "redirect_url")
+    private String redirectUrl;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+}
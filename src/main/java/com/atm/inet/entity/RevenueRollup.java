@@ -0,0 +1,55 @@
+package com.atm.inet.entity;
+
+import com.atm.inet.entity.constant.ECategory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Pre-aggregated revenue of settled orders per booking hour, category and computer.
+ * The id is the bucket key itself so rows can be upserted without a lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "t_revenue_rollup", indexes = {
+        @Index(name = "idx_revenue_rollup_bucket_date", columnList = "bucket_date, category")
+})
+public class RevenueRollup {
+
+    @Id
+    private String id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "bucket_hour", nullable = false)
+    private Integer bucketHour;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "category", nullable = false)
+    private ECategory category;
+
+    @Column(name = "computer_id", nullable = false)
+    private String computerId;
+
+    @Column(name = "revenue", nullable = false)
+    private Long revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount;
+
+    @Column(name = "booked_hours", nullable = false)
+    private Long bookedHours;
+
+    public static String bucketKey(LocalDate bucketDate, Integer bucketHour, ECategory category, String computerId) {
+        return bucketDate + "|" + bucketHour + "|" + category.name() + "|" + computerId;
+    }
+
+}
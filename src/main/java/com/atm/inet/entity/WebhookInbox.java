@@ -0,0 +1,51 @@
+package com.atm.inet.entity;
+
+import com.atm.inet.entity.constant.EInboxStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "t_webhook_inbox", indexes = {
+        @Index(name = "idx_webhook_inbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class WebhookInbox {
+
+    // order_id and transaction_status, a retried notification lands on the same row
+    @Id
+    private String id;
+
+    @Column(name = "order_id", nullable = false)
+    private String orderId;
+
+    @Column(name = "transaction_status", nullable = false)
+    private String transactionStatus;
+
+    @Column(name = "payload", columnDefinition = "text", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private EInboxStatus status;
+
+    @Column(name = "attempts")
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "received_at")
+    private LocalDateTime receivedAt;
+
+}
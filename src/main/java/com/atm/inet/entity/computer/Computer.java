@@ -38,5 +38,9 @@ public class Computer extends Auditable<String> {
     @ManyToOne(targetEntity = Type.class)
     @JoinColumn(name = "type_id")
     private Type type;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 }
 
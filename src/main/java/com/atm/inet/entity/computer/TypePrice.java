@@ -33,5 +33,21 @@ public class TypePrice extends Auditable<String> {
     @Column(name = "is_active")
     private Boolean isActive;
 
+    // pricing rules, compiled into an in-memory price table, null means the rule is off
+    @Column(name = "peak_start_hour")
+    private Integer peakStartHour;
+
+    @Column(name = "peak_end_hour")
+    private Integer peakEndHour;
+
+    @Column(name = "peak_surcharge_percent")
+    private Integer peakSurchargePercent;
+
+    @Column(name = "weekend_surcharge_percent")
+    private Integer weekendSurchargePercent;
+
+    @Column(name = "member_discount_percent")
+    private Integer memberDiscountPercent;
+
 }
 
@@ -0,0 +1,9 @@
+package com.atm.inet.entity.constant;
+
+public enum EInboxStatus {
+
+    PENDING,
+    PROCESSED,
+    FAILED
+
+}
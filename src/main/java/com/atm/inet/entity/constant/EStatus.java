@@ -5,6 +5,15 @@ public enum EStatus {
     USED,
     FREE,
     ORDERED,
-    DELETED
+    DELETED;
+
+    public boolean canTransitionTo(EStatus target) {
+        return switch (this) {
+            case FREE -> target == ORDERED || target == USED || target == DELETED;
+            case ORDERED -> target == USED || target == FREE;
+            case USED -> target == FREE || target == ORDERED;
+            case DELETED -> false;
+        };
+    }
 
 }
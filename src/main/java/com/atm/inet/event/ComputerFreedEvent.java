@@ -0,0 +1,14 @@
+package com.atm.inet.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+@Getter
+@AllArgsConstructor
+public class ComputerFreedEvent {
+
+    private final Collection<String> computerIds;
+
+}
@@ -0,0 +1,14 @@
+package com.atm.inet.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class OrderExpiredEvent {
+
+    private final List<String> orderIds;
+
+}
@@ -14,6 +14,7 @@ public class ComputerSearch {
     private String code;
     private String processor;
     private String vga;
+    private String ram;
     private String category;
     private String status;
 
@@ -0,0 +1,22 @@
+package com.atm.inet.model.common;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Builder
+@Setter
+public class OrderDetailSearch {
+
+    private String customerId;
+    private String computerId;
+    private String status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String cursor;
+    private Integer size;
+
+}
@@ -12,4 +12,5 @@ public class PagingResponse {
     private Integer totalPages;
     private Integer page;
     private Integer size;
+    private String nextCursor;
 }
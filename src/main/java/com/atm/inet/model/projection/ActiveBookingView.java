@@ -0,0 +1,15 @@
+package com.atm.inet.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface ActiveBookingView {
+
+    String getId();
+
+    String getComputerId();
+
+    LocalDateTime getBookingDate();
+
+    LocalDateTime getEndBookingDate();
+
+}
@@ -0,0 +1,15 @@
+package com.atm.inet.model.projection;
+
+import com.atm.inet.entity.Customer;
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.computer.TypePrice;
+
+public interface BookingContext {
+
+    Customer getCustomer();
+
+    Computer getComputer();
+
+    TypePrice getTypePrice();
+
+}
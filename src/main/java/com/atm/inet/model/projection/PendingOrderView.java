@@ -0,0 +1,11 @@
+package com.atm.inet.model.projection;
+
+import java.time.LocalDateTime;
+
+public interface PendingOrderView {
+
+    String getId();
+
+    LocalDateTime getTransactionDate();
+
+}
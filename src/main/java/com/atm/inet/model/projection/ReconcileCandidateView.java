@@ -0,0 +1,13 @@
+package com.atm.inet.model.projection;
+
+import com.atm.inet.entity.constant.EStatusOrder;
+
+public interface ReconcileCandidateView {
+
+    String getId();
+
+    String getGroupId();
+
+    EStatusOrder getStatus();
+
+}
@@ -0,0 +1,13 @@
+package com.atm.inet.model.projection;
+
+public interface RevenueBucketView {
+
+    String getBucket();
+
+    Long getRevenue();
+
+    Long getOrderCount();
+
+    Long getBookedHours();
+
+}
@@ -0,0 +1,21 @@
+package com.atm.inet.model.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MidtransNotification {
+
+    private String orderId;
+    private String statusCode;
+    // kept as sent, the signature is computed over the exact text e.g. "10000.00"
+    private String grossAmount;
+    private String transactionStatus;
+    private String signatureKey;
+
+}
@@ -17,5 +17,10 @@ public class TypeRequest {
 
     private String id;
     private Long price;
+    private Integer peakStartHour;
+    private Integer peakEndHour;
+    private Integer peakSurchargePercent;
+    private Integer weekendSurchargePercent;
+    private Integer memberDiscountPercent;
 
 }
@@ -18,5 +18,6 @@ public class ComputerResponse {
     private String status;
     private TypeResponse type;
     private ComputerSpecResponse specification;
+    private Long version;
 
 }
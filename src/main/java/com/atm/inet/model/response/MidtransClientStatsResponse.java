@@ -0,0 +1,27 @@
+package com.atm.inet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MidtransClientStatsResponse {
+
+    private Integer leasedConnections;
+    private Integer availableConnections;
+    private Integer pendingLeases;
+    private Integer maxConnections;
+    private Long leasesTotal;
+    private Long leaseTimeoutsTotal;
+    private Long averageLeaseWaitMillis;
+    private Long maxLeaseWaitMillis;
+    private Long requestsTotal;
+    private Long failedRequestsTotal;
+    private Long averageLatencyMillis;
+    private Long maxLatencyMillis;
+
+}
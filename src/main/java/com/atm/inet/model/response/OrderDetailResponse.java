@@ -1,6 +1,8 @@
 package com.atm.inet.model.response;
 
 
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.EStatusOrder;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,5 +34,29 @@ public class OrderDetailResponse {
     private @Nullable LocalDateTime startBookingDate;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime endBookingDate;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private @Nullable LocalDateTime transactionDate;
+
+    // used by the order list projection, which selects every field in one joined query
+    public OrderDetailResponse(String orderId, String computerCode, String computerName, ECategory category,
+                               Long totalPrice, Long unitPrice, Integer duration, EStatusOrder status,
+                               String customerFirstName, String customerLastName, String customerPhoneNumber, String customerEmail,
+                               LocalDateTime startBookingDate, LocalDateTime endBookingDate, LocalDateTime transactionDate) {
+        this.orderId = orderId;
+        this.computerCode = computerCode;
+        this.computerName = computerName;
+        this.type = category.name();
+        // orders placed before the pricing engine have no stored total
+        this.price = totalPrice != null ? totalPrice : unitPrice * duration;
+        this.duration = duration;
+        this.status = status.name();
+        this.customerFirstName = customerFirstName;
+        this.customerLastName = customerLastName;
+        this.customerPhoneNumber = customerPhoneNumber;
+        this.customerEmail = customerEmail;
+        this.startBookingDate = startBookingDate;
+        this.endBookingDate = endBookingDate;
+        this.transactionDate = transactionDate;
+    }
 
 }
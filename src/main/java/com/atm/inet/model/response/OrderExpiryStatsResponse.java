@@ -0,0 +1,19 @@
+package com.atm.inet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExpiryStatsResponse {
+
+    private Integer outstandingTimers;
+    private Long overdueMillis;
+    private Long lastTickLagMillis;
+    private Long expiredTotal;
+
+}
@@ -0,0 +1,25 @@
+package com.atm.inet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentGatewayStatsResponse {
+
+    private String state;
+    private Float failureRate;
+    private Float slowCallRate;
+    private Integer bufferedCalls;
+    private Integer failedCalls;
+    private Integer slowCalls;
+    private Long notPermittedCalls;
+    private Integer availableConcurrentCalls;
+    private Integer maxConcurrentCalls;
+    private Long bulkheadRejectedCalls;
+
+}
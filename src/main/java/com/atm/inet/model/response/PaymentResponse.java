@@ -1,6 +1,5 @@
 package com.atm.inet.model.response;
 
-import com.atm.inet.model.request.OrderDetailRequest;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,7 +10,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class PaymentResponse {
+    private String orderId;
+    private String status;
     private String token;
     private String redirectUrl;
 }
-
@@ -0,0 +1,24 @@
+package com.atm.inet.model.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteResponse {
+    private String typeId;
+    private String typePriceId;
+    private Long basePrice;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startBookingDate;
+    private Integer duration;
+    private Boolean member;
+    private Long totalPrice;
+}
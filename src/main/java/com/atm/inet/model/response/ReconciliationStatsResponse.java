@@ -0,0 +1,26 @@
+package com.atm.inet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationStatsResponse {
+
+    private Boolean running;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private Long scanned;
+    private Long checked;
+    private Long updated;
+    private Long unchanged;
+    private Long errors;
+    private Long updatedTotal;
+
+}
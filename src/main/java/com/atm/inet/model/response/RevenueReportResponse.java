@@ -0,0 +1,19 @@
+package com.atm.inet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueReportResponse {
+
+    private String bucket;
+    private Long revenue;
+    private Long orderCount;
+    private Long bookedHours;
+
+}
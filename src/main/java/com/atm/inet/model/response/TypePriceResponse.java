@@ -14,5 +14,10 @@ public class TypePriceResponse {
     private String id;
     private Long price;
     private Boolean isActive;
+    private Integer peakStartHour;
+    private Integer peakEndHour;
+    private Integer peakSurchargePercent;
+    private Integer weekendSurchargePercent;
+    private Integer memberDiscountPercent;
 
 }
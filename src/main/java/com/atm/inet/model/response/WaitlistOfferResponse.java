@@ -0,0 +1,19 @@
+package com.atm.inet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistOfferResponse {
+    private String computerId;
+    private String computerCode;
+    private String category;
+    private LocalDateTime claimExpiresAt;
+}
@@ -0,0 +1,22 @@
+package com.atm.inet.model.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookInboxStatsResponse {
+
+    private Integer queued;
+    private Long durablePending;
+    private Long acceptedTotal;
+    private Long duplicatesTotal;
+    private Long spilledTotal;
+    private Long processedTotal;
+    private Long failedTotal;
+
+}
@@ -1,6 +1,7 @@
 package com.atm.inet.repository;
 
 import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.constant.EStatus;
 import com.atm.inet.model.common.ComputerSearch;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.domain.Page;
@@ -8,11 +9,39 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ComputerRepository extends JpaRepository<Computer, String>, JpaSpecificationExecutor<Computer>{
+public interface ComputerRepository extends JpaRepository<Computer, String>, JpaSpecificationExecutor<Computer>, ComputerRepositoryCustom {
+
+    @Query("select c from Computer c join fetch c.type where c.id in :ids")
+    List<Computer> findAllWithTypeByIdIn(@Param("ids") Collection<String> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update Computer c set c.status = :to, c.version = c.version + 1 where c.id = :id and c.status = :from")
+    int compareAndSetStatus(@Param("id") String id, @Param("from") EStatus from, @Param("to") EStatus to);
+
+    @Transactional
+    @Query(value = "UPDATE m_computer SET status = :to, version = version + 1 " +
+            "WHERE id IN (:ids) AND status IN (:from) RETURNING id", nativeQuery = true)
+    List<String> compareAndSetStatusesReturningIds(@Param("ids") Collection<String> ids, @Param("from") Collection<String> from,
+                                                   @Param("to") String to);
+
+    // bumps the version only if nobody else touched the computer since it was read; a computer in use
+    // can still be booked for later, overlaps are the availability index's call
+    @Transactional
+    @Modifying
+    @Query("update Computer c set c.version = c.version + 1 " +
+            "where c.id = :id and c.version = :version and c.status <> com.atm.inet.entity.constant.EStatus.DELETED")
+    int claimForBooking(@Param("id") String id, @Param("version") Long version);
 
 }
@@ -0,0 +1,15 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.computer.Computer;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ComputerRepositoryCustom {
+
+    List<String> findBookableIds(Specification<Computer> specification);
+
+    List<Computer> findAllForResponseByIdIn(Collection<String> ids);
+
+}
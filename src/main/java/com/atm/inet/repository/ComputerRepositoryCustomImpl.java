@@ -0,0 +1,57 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.computer.Type;
+import com.atm.inet.entity.constant.EStatus;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The availability search only needs the ids of the computers matching a filter to check them against the
+ * slot index, so this selects the id column alone instead of loading every candidate with its eager associations.
+ * The computers that turn out free are then loaded with everything a response reads in a fixed two statements.
+ */
+public class ComputerRepositoryCustomImpl implements ComputerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<String> findBookableIds(Specification<Computer> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = criteriaBuilder.createQuery(String.class);
+        Root<Computer> root = query.from(Computer.class);
+
+        query.select(root.get("id"))
+                .where(specification.toPredicate(root, query, criteriaBuilder),
+                        criteriaBuilder.notEqual(root.get("status"), EStatus.DELETED),
+                        criteriaBuilder.isNotNull(root.get("code")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    @Transactional
+    public List<Computer> findAllForResponseByIdIn(Collection<String> ids) {
+        List<Computer> computers = entityManager.createQuery("select c from Computer c join fetch c.specification " +
+                        "join fetch c.type t left join fetch t.computerImage where c.id in :ids", Computer.class)
+                .setParameter("ids", ids)
+                .getResultList();
+
+        // prices get their own query, fetched above the bag would hold every price once per computer of the type
+        List<Type> types = computers.stream().map(Computer::getType).distinct().toList();
+        if (!types.isEmpty())
+            entityManager.createQuery("select distinct t from Type t left join fetch t.typePrices where t in :types", Type.class)
+                    .setParameter("types", types)
+                    .getResultList();
+        return computers;
+    }
+}
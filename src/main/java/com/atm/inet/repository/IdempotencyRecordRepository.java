@@ -0,0 +1,41 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // the first request with a key wins the insert, concurrent retries see 0 rows
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO t_idempotency_key (id, fingerprint, created_at, expires_at) " +
+            "VALUES (:id, :fingerprint, :createdAt, :expiresAt) ON CONFLICT (id) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("id") String id, @Param("fingerprint") String fingerprint,
+                       @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // an expired key, or a claim whose request died before completing it, goes to the first caller that asks
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord i set i.fingerprint = :fingerprint, i.response = null, i.createdAt = :createdAt, " +
+            "i.expiresAt = :expiresAt where i.id = :id and (i.expiresAt < :createdAt or (i.response is null and i.createdAt < :staleBefore))")
+    int takeOver(@Param("id") String id, @Param("fingerprint") String fingerprint, @Param("createdAt") LocalDateTime createdAt,
+                 @Param("expiresAt") LocalDateTime expiresAt, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord i set i.response = :response where i.id = :id")
+    int complete(@Param("id") String id, @Param("response") String response);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord i where i.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
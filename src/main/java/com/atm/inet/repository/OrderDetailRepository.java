@@ -1,13 +1,87 @@
 package com.atm.inet.repository;
 
 import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.model.projection.ActiveBookingView;
+import com.atm.inet.model.projection.BookingContext;
+import com.atm.inet.model.projection.PendingOrderView;
+import com.atm.inet.model.projection.ReconcileCandidateView;
+import com.atm.inet.model.response.OrderDetailResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import javax.transaction.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface OrderDetailRepository extends JpaRepository<OrderDetail, String> {
+public interface OrderDetailRepository extends JpaRepository<OrderDetail, String>, OrderDetailRepositoryCustom {
+
+    @Query("select o.id as id, o.computer.id as computerId, o.bookingDate as bookingDate, o.endBookingDate as endBookingDate " +
+            "from OrderDetail o where o.status in :statuses and o.endBookingDate > :after")
+    List<ActiveBookingView> findActiveBookings(@Param("statuses") Collection<EStatusOrder> statuses, @Param("after") LocalDateTime after);
+
+    List<PendingOrderView> findAllByStatus(EStatusOrder status);
+
+    List<OrderDetail> findAllByGroupId(String groupId);
+
+    // keyset page over PENDING orders past the grace period and FAILED orders from the lookback window
+    @Query("select o.id as id, o.groupId as groupId, o.status as status from OrderDetail o " +
+            "where o.id > :afterId and o.transactionDate < :createdBefore " +
+            "and (o.status = :pending or (o.status = :failed and o.transactionDate >= :failedSince)) order by o.id")
+    List<ReconcileCandidateView> findReconcileCandidates(@Param("afterId") String afterId,
+                                                         @Param("createdBefore") LocalDateTime createdBefore,
+                                                         @Param("failedSince") LocalDateTime failedSince,
+                                                         @Param("pending") EStatusOrder pending,
+                                                         @Param("failed") EStatusOrder failed,
+                                                         Pageable pageable);
+
+    @Query("select distinct o.computer.id from OrderDetail o where o.id in :ids")
+    List<String> findComputerIdsByIdIn(@Param("ids") Collection<String> ids);
+
+    // everything create() needs in one round trip; empty when any part is missing or the customer is not the caller
+    @Query("select cu as customer, pc as computer, tp as typePrice " +
+            "from Customer cu join fetch cu.userCredential uc join fetch uc.role left join fetch uc.profilePicture, " +
+            "Computer pc join fetch pc.type t join fetch pc.specification left join fetch t.computerImage, " +
+            "TypePrice tp " +
+            "where cu.id = :customerId and uc.email = :principal and pc.id = :computerId " +
+            "and tp.type = t and tp.isActive = true")
+    Optional<BookingContext> findBookingContext(@Param("customerId") String customerId, @Param("computerId") String computerId,
+                                                @Param("principal") String principal);
+
+    // only the caller that actually moves the order out of from sees 1, duplicates racing it or arriving later see 0
+    @Transactional
+    @Modifying
+    @Query("update OrderDetail o set o.status = :to where o.id = :id and o.status = :from")
+    int compareAndSetStatus(@Param("id") String id, @Param("from") EStatusOrder from, @Param("to") EStatusOrder to);
+
+    @Transactional
+    @Query(value = "UPDATE t_order_detail SET order_status = 'FAILED' " +
+            "WHERE id IN (:ids) AND order_status = 'PENDING' RETURNING id", nativeQuery = true)
+    List<String> expirePendingByIds(@Param("ids") Collection<String> ids);
+
+    @Transactional
+    @Query(value = "UPDATE t_order_detail SET order_status = 'FAILED' " +
+            "WHERE order_status = 'PENDING' AND transaction_date < :cutoff RETURNING id", nativeQuery = true)
+    List<String> expirePendingBefore(@Param("cutoff") LocalDateTime cutoff);
 
-    List<OrderDetail> findAllByCustomer_Id(String id);
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select new com.atm.inet.model.response.OrderDetailResponse(o.id, c.code, c.name, t.category, o.totalPrice, tp.price, o.duration, o.status, " +
+            "cu.firstName, cu.lastName, cu.phoneNumber, cu.email, o.bookingDate, o.endBookingDate, o.transactionDate) " +
+            "from OrderDetail o join o.customer cu join o.computer c join c.type t join o.typePrice tp " +
+            "where o.transactionDate >= :from and o.transactionDate < :to order by o.transactionDate, o.id")
+    Stream<OrderDetailResponse> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
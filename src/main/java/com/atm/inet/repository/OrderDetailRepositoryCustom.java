@@ -0,0 +1,13 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.model.response.OrderDetailResponse;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface OrderDetailRepositoryCustom {
+
+    List<OrderDetailResponse> findSlice(Specification<OrderDetail> specification, int limit);
+
+}
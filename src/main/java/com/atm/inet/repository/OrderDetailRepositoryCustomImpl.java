@@ -0,0 +1,62 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.Customer;
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.computer.Type;
+import com.atm.inet.entity.computer.TypePrice;
+import com.atm.inet.model.response.OrderDetailResponse;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+/**
+ * Keyset pages need a plain LIMIT without the count query that {@code findAll(Specification, Pageable)} issues,
+ * and the rows are projected straight into {@link OrderDetailResponse} so a page costs exactly one joined SELECT.
+ */
+public class OrderDetailRepositoryCustomImpl implements OrderDetailRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderDetailResponse> findSlice(Specification<OrderDetail> specification, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderDetailResponse> query = criteriaBuilder.createQuery(OrderDetailResponse.class);
+        Root<OrderDetail> root = query.from(OrderDetail.class);
+
+        Join<OrderDetail, Customer> customer = root.join("customer");
+        Join<OrderDetail, Computer> computer = root.join("computer");
+        Join<Computer, Type> type = computer.join("type");
+        Join<OrderDetail, TypePrice> typePrice = root.join("typePrice");
+
+        query.select(criteriaBuilder.construct(OrderDetailResponse.class,
+                        root.get("id"),
+                        computer.get("code"),
+                        computer.get("name"),
+                        type.get("category"),
+                        root.get("totalPrice"),
+                        typePrice.get("price"),
+                        root.get("duration"),
+                        root.get("status"),
+                        customer.get("firstName"),
+                        customer.get("lastName"),
+                        customer.get("phoneNumber"),
+                        customer.get("email"),
+                        root.get("bookingDate"),
+                        root.get("endBookingDate"),
+                        root.get("transactionDate")))
+                .where(specification.toPredicate(root, query, criteriaBuilder))
+                .orderBy(criteriaBuilder.desc(root.get("transactionDate")), criteriaBuilder.desc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
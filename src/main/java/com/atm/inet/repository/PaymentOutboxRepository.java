@@ -0,0 +1,29 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.PaymentOutbox;
+import com.atm.inet.entity.constant.EOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, String> {
+
+    Optional<PaymentOutbox> findByOrderId(String orderId);
+
+    List<PaymentOutbox> findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(EOutboxStatus status, LocalDateTime now);
+
+    // pushes next_attempt_at forward so no other dispatcher picks the row up while the gateway call is running
+    @Transactional
+    @Modifying
+    @Query("update PaymentOutbox p set p.nextAttemptAt = :leaseUntil " +
+            "where p.id = :id and p.status = com.atm.inet.entity.constant.EOutboxStatus.PENDING and p.nextAttemptAt <= :now")
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
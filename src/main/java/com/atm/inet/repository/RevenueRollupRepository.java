@@ -0,0 +1,69 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.RevenueRollup;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.model.projection.RevenueBucketView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, String> {
+
+    @Modifying
+    @Query(value = "INSERT INTO t_revenue_rollup (id, bucket_date, bucket_hour, category, computer_id, revenue, order_count, booked_hours) " +
+            "VALUES (:id, :bucketDate, :bucketHour, :category, :computerId, :revenue, 1, :bookedHours) " +
+            "ON CONFLICT (id) DO UPDATE SET revenue = t_revenue_rollup.revenue + EXCLUDED.revenue, " +
+            "order_count = t_revenue_rollup.order_count + 1, booked_hours = t_revenue_rollup.booked_hours + EXCLUDED.booked_hours",
+            nativeQuery = true)
+    void increment(@Param("id") String id, @Param("bucketDate") LocalDate bucketDate, @Param("bucketHour") Integer bucketHour,
+                   @Param("category") String category, @Param("computerId") String computerId,
+                   @Param("revenue") Long revenue, @Param("bookedHours") Long bookedHours);
+
+    // held until the rebuild commits, a live increment waits and lands on the rebuilt bucket instead of racing the backfill
+    @Modifying
+    @Query(value = "LOCK TABLE t_revenue_rollup IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM t_revenue_rollup", nativeQuery = true)
+    void deleteAllBuckets();
+
+    // the id expression must produce the same key as RevenueRollup.bucketKey
+    @Modifying
+    @Query(value = "INSERT INTO t_revenue_rollup (id, bucket_date, bucket_hour, category, computer_id, revenue, order_count, booked_hours) " +
+            "SELECT CONCAT(b.bucket_date, '|', b.bucket_hour, '|', b.category, '|', b.computer_id), " +
+            "b.bucket_date, b.bucket_hour, b.category, b.computer_id, SUM(b.revenue), COUNT(*), SUM(b.duration) " +
+            "FROM (SELECT CAST(o.start_booking AS date) AS bucket_date, CAST(EXTRACT(HOUR FROM o.start_booking) AS integer) AS bucket_hour, " +
+            "t.category AS category, o.computer_id AS computer_id, COALESCE(o.total_price, tp.price * o.duration) AS revenue, o.duration AS duration " +
+            "FROM t_order_detail o JOIN m_computer c ON c.id = o.computer_id JOIN m_type t ON t.id = c.type_id " +
+            "JOIN m_type_price tp ON tp.id = o.type_price_id WHERE o.order_status = 'SUCCESS') b " +
+            "GROUP BY b.bucket_date, b.bucket_hour, b.category, b.computer_id",
+            nativeQuery = true)
+    int backfillFromOrders();
+
+    @Query("select str(r.bucketDate) as bucket, sum(r.revenue) as revenue, sum(r.orderCount) as orderCount, sum(r.bookedHours) as bookedHours " +
+            "from RevenueRollup r where r.bucketDate between :from and :to and (:category is null or r.category = :category) " +
+            "group by r.bucketDate order by r.bucketDate")
+    List<RevenueBucketView> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("category") ECategory category);
+
+    @Query("select str(r.bucketHour) as bucket, sum(r.revenue) as revenue, sum(r.orderCount) as orderCount, sum(r.bookedHours) as bookedHours " +
+            "from RevenueRollup r where r.bucketDate between :from and :to and (:category is null or r.category = :category) " +
+            "group by r.bucketHour order by r.bucketHour")
+    List<RevenueBucketView> sumByHour(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("category") ECategory category);
+
+    @Query("select str(r.category) as bucket, sum(r.revenue) as revenue, sum(r.orderCount) as orderCount, sum(r.bookedHours) as bookedHours " +
+            "from RevenueRollup r where r.bucketDate between :from and :to and (:category is null or r.category = :category) " +
+            "group by r.category order by r.category")
+    List<RevenueBucketView> sumByCategory(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("category") ECategory category);
+
+    @Query("select r.computerId as bucket, sum(r.revenue) as revenue, sum(r.orderCount) as orderCount, sum(r.bookedHours) as bookedHours " +
+            "from RevenueRollup r where r.bucketDate between :from and :to and (:category is null or r.category = :category) " +
+            "group by r.computerId order by sum(r.revenue) desc")
+    List<RevenueBucketView> sumByComputer(@Param("from") LocalDate from, @Param("to") LocalDate to, @Param("category") ECategory category);
+}
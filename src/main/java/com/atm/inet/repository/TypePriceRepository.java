@@ -3,8 +3,10 @@ package com.atm.inet.repository;
 import com.atm.inet.entity.computer.Type;
 import com.atm.inet.entity.computer.TypePrice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +14,7 @@ public interface TypePriceRepository extends JpaRepository<TypePrice, String> {
     Optional<TypePrice> findFirstByIsActiveTrue();
 
     Optional<TypePrice> findByIsActiveTrueAndType_Id(String typeId);
+
+    @Query("select tp from TypePrice tp join fetch tp.type where tp.isActive = true")
+    List<TypePrice> findAllActiveWithType();
 }
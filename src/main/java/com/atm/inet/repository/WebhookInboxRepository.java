@@ -0,0 +1,39 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.WebhookInbox;
+import com.atm.inet.entity.constant.EInboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInbox, String> {
+
+    List<WebhookInbox> findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(EInboxStatus status, LocalDateTime now);
+
+    long countByStatus(EInboxStatus status);
+
+    // a row still PENDING already carries the notification; a PROCESSED or FAILED one is queued again
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO t_webhook_inbox (id, order_id, transaction_status, payload, status, attempts, next_attempt_at, received_at) " +
+            "VALUES (:id, :orderId, :transactionStatus, :payload, 'PENDING', :attempts, :nextAttemptAt, :receivedAt) " +
+            "ON CONFLICT (id) DO UPDATE SET status = 'PENDING', payload = EXCLUDED.payload, attempts = EXCLUDED.attempts, " +
+            "next_attempt_at = EXCLUDED.next_attempt_at, last_error = NULL " +
+            "WHERE t_webhook_inbox.status <> 'PENDING'", nativeQuery = true)
+    int upsertPending(@Param("id") String id, @Param("orderId") String orderId, @Param("transactionStatus") String transactionStatus,
+                       @Param("payload") String payload, @Param("attempts") int attempts,
+                       @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("receivedAt") LocalDateTime receivedAt);
+
+    @Transactional
+    @Modifying
+    @Query("update WebhookInbox w set w.nextAttemptAt = :leaseUntil " +
+            "where w.id = :id and w.status = com.atm.inet.entity.constant.EInboxStatus.PENDING and w.nextAttemptAt <= :now")
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+}
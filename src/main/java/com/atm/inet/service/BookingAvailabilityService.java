@@ -0,0 +1,17 @@
+package com.atm.inet.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingAvailabilityService {
+
+    boolean isAvailable(String computerId, LocalDateTime start, LocalDateTime end);
+
+    boolean reserve(String computerId, String orderId, LocalDateTime start, LocalDateTime end);
+
+    void release(String orderId);
+
+    List<String> findAvailable(Collection<String> computerIds, LocalDateTime start, LocalDateTime end);
+
+}
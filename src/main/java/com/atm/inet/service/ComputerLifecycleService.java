@@ -0,0 +1,11 @@
+package com.atm.inet.service;
+
+import java.time.LocalDateTime;
+
+public interface ComputerLifecycleService {
+
+    void schedule(String computerId, LocalDateTime start, LocalDateTime end);
+
+    int getPendingEvents();
+
+}
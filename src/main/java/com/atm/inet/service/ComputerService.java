@@ -3,6 +3,7 @@ package com.atm.inet.service;
 import com.atm.inet.entity.computer.Computer;
 import com.atm.inet.entity.computer.ComputerImage;
 import com.atm.inet.entity.computer.Type;
+import com.atm.inet.entity.constant.EStatus;
 import com.atm.inet.model.common.ComputerSearch;
 import com.atm.inet.model.request.ComputerRequest;
 import com.atm.inet.model.request.ComputerUpdateRequest;
@@ -13,12 +14,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 public interface ComputerService {
 
     Computer saveByComputer(Computer computer);
     NewComputerResponse save(ComputerRequest request, MultipartFile multipartFile);
 
     Page<ComputerResponse> getAll(Pageable pageable, ComputerSearch computerSearch);
+
+    List<ComputerResponse> getAvailable(ComputerSearch computerSearch, LocalDateTime from, LocalDateTime to);
     ComputerResponse updateComputer(ComputerUpdateRequest updateComputer);
 
     ComputerResponse getById(String id);
@@ -27,6 +34,14 @@ public interface ComputerService {
 
     Computer getByComputerId(String id);
 
+    List<Computer> getAllByComputerIds(Collection<String> ids);
+
+    boolean transitionStatus(String id, EStatus from, EStatus to);
+
+    List<String> transitionStatusesReturningIds(Collection<String> ids, Collection<EStatus> from, EStatus to);
+
+    void claimForBooking(String id, Long version);
+
     String deleteById(String id);
 
 
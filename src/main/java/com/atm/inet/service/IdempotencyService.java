@@ -0,0 +1,9 @@
+package com.atm.inet.service;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    <T> T execute(String requester, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action);
+
+}
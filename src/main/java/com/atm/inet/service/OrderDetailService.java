@@ -1,23 +1,32 @@
 package com.atm.inet.service;
 
 import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.model.common.CursorPage;
+import com.atm.inet.model.common.OrderDetailSearch;
+import com.atm.inet.model.request.GroupOrderRequest;
 import com.atm.inet.model.request.OrderDetailRequest;
 import com.atm.inet.model.response.OrderDetailResponse;
 import com.atm.inet.model.response.PaymentResponse;
 import org.springframework.security.core.Authentication;
 
-import java.util.List;
+import java.util.Map;
 
 public interface OrderDetailService {
 
       PaymentResponse create(OrderDetailRequest request);
 
+      PaymentResponse createGroup(GroupOrderRequest request);
+
       String updateStatus(String id);
 
+      void applyStatus(String id, String transactionStatus);
+
+      void applyStatuses(Map<String, String> transactionStatusesById);
+
       OrderDetail findById(String id);
 
-      List<OrderDetailResponse> getAll(Authentication authentication);
+      CursorPage<OrderDetailResponse> getAll(Authentication authentication, OrderDetailSearch orderDetailSearch);
 
-      List<OrderDetailResponse> getAll();
+      CursorPage<OrderDetailResponse> getAll(OrderDetailSearch orderDetailSearch);
 
 }
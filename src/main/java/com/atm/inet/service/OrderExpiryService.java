@@ -0,0 +1,18 @@
+package com.atm.inet.service;
+
+import com.atm.inet.model.response.OrderExpiryStatsResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderExpiryService {
+
+    void schedule(String orderId, LocalDateTime transactionDate);
+
+    void cancel(String orderId);
+
+    List<String> expireStalePending();
+
+    OrderExpiryStatsResponse getStats();
+
+}
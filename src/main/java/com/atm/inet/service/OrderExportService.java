@@ -0,0 +1,14 @@
+package com.atm.inet.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface OrderExportService {
+
+    String FORMAT_CSV = "csv";
+    String FORMAT_NDJSON = "ndjson";
+
+    void export(LocalDateTime from, LocalDateTime to, String format, OutputStream outputStream) throws IOException;
+
+}
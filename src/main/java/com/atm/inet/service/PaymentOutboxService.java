@@ -0,0 +1,11 @@
+package com.atm.inet.service;
+
+import com.atm.inet.model.response.PaymentResponse;
+
+public interface PaymentOutboxService {
+
+    void enqueue(String orderId, String requestedBy, String payload);
+
+    PaymentResponse getPayment(String orderId, String requestedBy);
+
+}
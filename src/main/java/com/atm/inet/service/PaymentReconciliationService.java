@@ -0,0 +1,11 @@
+package com.atm.inet.service;
+
+import com.atm.inet.model.response.ReconciliationStatsResponse;
+
+public interface PaymentReconciliationService {
+
+    ReconciliationStatsResponse trigger();
+
+    ReconciliationStatsResponse getStats();
+
+}
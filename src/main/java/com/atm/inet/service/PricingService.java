@@ -0,0 +1,18 @@
+package com.atm.inet.service;
+
+import com.atm.inet.entity.computer.TypePrice;
+import com.atm.inet.model.response.PriceQuoteResponse;
+
+import java.time.LocalDateTime;
+
+public interface PricingService {
+
+    PriceQuoteResponse quote(String typeId, LocalDateTime start, int duration, boolean member);
+
+    long totalFor(TypePrice activePrice, LocalDateTime start, int duration, boolean member);
+
+    void validate(TypePrice typePrice);
+
+    void publish(TypePrice activePrice);
+
+}
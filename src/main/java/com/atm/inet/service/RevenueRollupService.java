@@ -0,0 +1,17 @@
+package com.atm.inet.service;
+
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.model.response.RevenueReportResponse;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface RevenueRollupService {
+
+    void record(OrderDetail orderDetail);
+
+    List<RevenueReportResponse> getReport(LocalDate from, LocalDate to, String category, String groupBy);
+
+    boolean startRebuild();
+
+}
@@ -0,0 +1,15 @@
+package com.atm.inet.service;
+
+public interface SeatLeaseService {
+
+    boolean acquire(String computerId, String holder);
+
+    void bindOrder(String computerId, String holder, String orderId);
+
+    void release(String computerId, String holder);
+
+    void releaseOrder(String orderId);
+
+    boolean releaseUnbound(String computerId, String holder);
+
+}
@@ -11,5 +11,7 @@ public interface TypePriceService {
 
     TypePrice findById(String id);
 
+    TypePrice getReference(String id);
+
 
 }
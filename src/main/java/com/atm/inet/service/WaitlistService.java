@@ -0,0 +1,16 @@
+package com.atm.inet.service;
+
+import com.atm.inet.entity.constant.ECategory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+public interface WaitlistService {
+
+    SseEmitter join(ECategory category, String holder);
+
+    void leave(ECategory category, String holder);
+
+    Map<ECategory, Integer> getQueueSizes();
+
+}
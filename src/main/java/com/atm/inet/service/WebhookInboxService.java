@@ -0,0 +1,12 @@
+package com.atm.inet.service;
+
+import com.atm.inet.model.request.MidtransNotification;
+import com.atm.inet.model.response.WebhookInboxStatsResponse;
+
+public interface WebhookInboxService {
+
+    void accept(MidtransNotification notification, String payload);
+
+    WebhookInboxStatsResponse getStats();
+
+}
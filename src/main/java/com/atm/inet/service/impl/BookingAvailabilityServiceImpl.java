@@ -0,0 +1,160 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.event.OrderExpiredEvent;
+import com.atm.inet.model.projection.ActiveBookingView;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.BookingAvailabilityService;
+import com.atm.inet.utils.SlotOccupancy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps every PENDING or SUCCESS booking in memory as a sorted interval map per computer,
+ * so an overlap check is a single floor lookup instead of a scan of t_order_detail.
+ * The same bookings are mirrored into a 15-minute slot bitmap that answers availability searches.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookingAvailabilityServiceImpl implements BookingAvailabilityService {
+
+    private static final int SLOT_MINUTES = 15;
+    private static final int DEFAULT_HORIZON_DAYS = 14;
+
+    private final OrderDetailRepository orderDetailRepository;
+
+    @Value("${icafe.availability.horizon-days:14}")
+    private int horizonDays = DEFAULT_HORIZON_DAYS;
+
+    private final Map<String, NavigableMap<LocalDateTime, Booking>> schedules = new ConcurrentHashMap<>();
+    private final Map<String, Booking> bookingsByOrder = new ConcurrentHashMap<>();
+    private volatile SlotOccupancy occupancy = new SlotOccupancy(SLOT_MINUTES, DEFAULT_HORIZON_DAYS, LocalDateTime.now());
+
+    @PostConstruct
+    public void rebuild() {
+        occupancy = new SlotOccupancy(SLOT_MINUTES, horizonDays, LocalDateTime.now());
+        List<ActiveBookingView> activeBookings = orderDetailRepository.findActiveBookings(
+                List.of(EStatusOrder.PENDING, EStatusOrder.SUCCESS), LocalDateTime.now());
+
+        activeBookings.forEach(booking -> {
+            if (!reserve(booking.getComputerId(), booking.getId(), booking.getBookingDate(), booking.getEndBookingDate()))
+                log.warn("Overlapping booking {} on computer {} was skipped while rebuilding availability", booking.getId(), booking.getComputerId());
+        });
+
+        log.info("Availability index rebuilt with {} active bookings", bookingsByOrder.size());
+    }
+
+    @Override
+    public boolean isAvailable(String computerId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, Booking> schedule = schedules.get(computerId);
+        if (schedule == null) return true;
+
+        synchronized (schedule) {
+            return !overlaps(schedule, start, end);
+        }
+    }
+
+    @Override
+    public boolean reserve(String computerId, String orderId, LocalDateTime start, LocalDateTime end) {
+        NavigableMap<LocalDateTime, Booking> schedule = schedules.computeIfAbsent(computerId, id -> new TreeMap<>());
+
+        synchronized (schedule) {
+            pruneFinished(schedule);
+            // the same order asking again, e.g. a settlement retried after a rolled back batch, keeps its booking
+            Booking existing = bookingsByOrder.get(orderId);
+            if (existing != null && existing.computerId.equals(computerId) && existing.start.equals(start) && existing.end.equals(end))
+                return true;
+            // an empty window overlaps nothing but would still replace the booking keyed on the same start
+            if (schedule.containsKey(start) || overlaps(schedule, start, end)) return false;
+
+            Booking booking = new Booking(orderId, computerId, start, end);
+            schedule.put(start, booking);
+            bookingsByOrder.put(orderId, booking);
+            occupancy.mark(computerId, start, end);
+            return true;
+        }
+    }
+
+    @Override
+    public void release(String orderId) {
+        Booking booking = bookingsByOrder.remove(orderId);
+        if (booking == null) return;
+
+        NavigableMap<LocalDateTime, Booking> schedule = schedules.get(booking.computerId);
+        if (schedule == null) return;
+
+        synchronized (schedule) {
+            if (!schedule.remove(booking.start, booking)) return;
+
+            occupancy.clear(booking.computerId, booking.start, booking.end);
+            // neighbours may share a partly booked slot with the released booking
+            Map.Entry<LocalDateTime, Booking> before = schedule.lowerEntry(booking.start);
+            Map.Entry<LocalDateTime, Booking> after = schedule.higherEntry(booking.start);
+            if (before != null) occupancy.mark(booking.computerId, before.getValue().start, before.getValue().end);
+            if (after != null) occupancy.mark(booking.computerId, after.getValue().start, after.getValue().end);
+        }
+    }
+
+    @Override
+    public List<String> findAvailable(Collection<String> computerIds, LocalDateTime start, LocalDateTime end) {
+        SlotOccupancy current = occupancy;
+        if (current.roll(LocalDateTime.now()) > 0) {
+            // bookings that were beyond the old horizon now fall inside it
+            bookingsByOrder.values().forEach(booking -> current.mark(booking.computerId, booking.start, booking.end));
+        }
+        if (!current.covers(start, end))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search window must be within the next " + horizonDays + " days");
+
+        return current.free(computerIds, start, end);
+    }
+
+    @EventListener
+    public void onOrderExpired(OrderExpiredEvent event) {
+        event.getOrderIds().forEach(this::release);
+    }
+
+    // bookings never overlap each other, so the one starting last before `end` is the only candidate
+    private boolean overlaps(NavigableMap<LocalDateTime, Booking> schedule, LocalDateTime start, LocalDateTime end) {
+        Map.Entry<LocalDateTime, Booking> candidate = schedule.lowerEntry(end);
+        return candidate != null && candidate.getValue().end.isAfter(start);
+    }
+
+    private void pruneFinished(NavigableMap<LocalDateTime, Booking> schedule) {
+        LocalDateTime now = LocalDateTime.now();
+        Map.Entry<LocalDateTime, Booking> first = schedule.firstEntry();
+        while (first != null && !first.getValue().end.isAfter(now)) {
+            schedule.pollFirstEntry();
+            bookingsByOrder.remove(first.getValue().orderId, first.getValue());
+            first = schedule.firstEntry();
+        }
+    }
+
+    private static final class Booking {
+        private final String orderId;
+        private final String computerId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        private Booking(String orderId, String computerId, LocalDateTime start, LocalDateTime end) {
+            this.orderId = orderId;
+            this.computerId = computerId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
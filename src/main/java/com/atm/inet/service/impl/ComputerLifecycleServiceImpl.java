@@ -0,0 +1,158 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.event.ComputerFreedEvent;
+import com.atm.inet.model.projection.ActiveBookingView;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.ComputerLifecycleService;
+import com.atm.inet.service.ComputerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves settled computers ORDERED -> USED when a booking starts and back to FREE (or ORDERED when another
+ * paid booking is still ahead) when it ends. Start and end events sit in a priority queue ordered by time;
+ * every tick drains the due events and applies them with one conditional UPDATE per target status.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ComputerLifecycleServiceImpl implements ComputerLifecycleService {
+
+    private static final List<EStatus> STARTABLE = List.of(EStatus.FREE, EStatus.ORDERED);
+    private static final List<EStatus> ENDABLE = List.of(EStatus.USED);
+    private static final List<EStatus> ENDABLE_UNSTARTED = List.of(EStatus.USED, EStatus.ORDERED);
+
+    private final OrderDetailRepository orderDetailRepository;
+    private final ComputerService computerService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${icafe.computer.lifecycle.tick-seconds:15}")
+    private long tickSeconds;
+
+    @Value("${icafe.computer.lifecycle.batch-size:500}")
+    private int batchSize;
+
+    private final PriorityQueue<LifecycleEvent> events = new PriorityQueue<>();
+    // paid bookings per computer that have not started yet, decides FREE or ORDERED when a session ends
+    private final Map<String, Integer> upcomingStarts = new HashMap<>();
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    public void start() {
+        List<ActiveBookingView> bookings = orderDetailRepository.findActiveBookings(List.of(EStatusOrder.SUCCESS), LocalDateTime.now());
+        bookings.forEach(booking -> schedule(booking.getComputerId(), booking.getBookingDate(), booking.getEndBookingDate()));
+        log.info("Computer lifecycle queue rebuilt with {} settled bookings", bookings.size());
+
+        ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleWithFixedDelay(this::tick, 0, tickSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public synchronized void schedule(String computerId, LocalDateTime start, LocalDateTime end) {
+        // a booking settled after its session began still goes in use on the next tick
+        events.add(new LifecycleEvent(start, computerId, true));
+        events.add(new LifecycleEvent(end, computerId, false));
+        upcomingStarts.merge(computerId, 1, Integer::sum);
+    }
+
+    @Override
+    public synchronized int getPendingEvents() {
+        return events.size();
+    }
+
+    void tick() {
+        List<LifecycleEvent> due = drainDue(LocalDateTime.now());
+        if (due.isEmpty()) return;
+
+        // a computer ends up where its latest due event puts it, so back to back bookings meeting in one tick
+        // hand it over without it ever looking free
+        Map<String, LifecycleEvent> latest = new LinkedHashMap<>();
+        Set<String> startedNow = new HashSet<>();
+        due.forEach(event -> {
+            latest.put(event.computerId, event);
+            if (event.start) startedNow.add(event.computerId);
+        });
+        Set<String> ending = new LinkedHashSet<>();
+        Set<String> starting = new LinkedHashSet<>();
+        latest.values().forEach(event -> (event.start ? starting : ending).add(event.computerId));
+
+        try {
+            Set<String> stillBooked = new LinkedHashSet<>();
+            Set<String> free = new LinkedHashSet<>();
+            synchronized (this) {
+                ending.forEach(computerId -> (upcomingStarts.containsKey(computerId) ? stillBooked : free).add(computerId));
+            }
+            List<String> freed = end(free, startedNow, EStatus.FREE);
+            // only computers this tick actually moved, one that was not USED any more is nobody's to offer
+            if (!freed.isEmpty()) eventPublisher.publishEvent(new ComputerFreedEvent(freed));
+            int reordered = end(stillBooked, startedNow, EStatus.ORDERED).size();
+            int used = apply(starting, STARTABLE, EStatus.USED).size();
+            log.info("Computer lifecycle tick: {} in use, {} freed, {} back to ordered", used, freed.size(), reordered);
+        } catch (Exception e) {
+            log.error("Failed to apply {} computer lifecycle events, retrying on next tick", due.size(), e);
+            requeue(due);
+        }
+    }
+
+    // a booking that began and ended within one tick never went USED, it leaves straight from ORDERED,
+    // unless it is heading back to ORDERED anyway
+    private List<String> end(Set<String> computerIds, Set<String> startedNow, EStatus to) {
+        List<String> moved = apply(computerIds.stream().filter(id -> !startedNow.contains(id)).toList(), ENDABLE, to);
+        List<EStatus> unstartedFrom = ENDABLE_UNSTARTED.stream().filter(status -> status.canTransitionTo(to)).toList();
+        moved.addAll(apply(computerIds.stream().filter(startedNow::contains).toList(), unstartedFrom, to));
+        return moved;
+    }
+
+    private List<String> apply(Collection<String> computerIds, Collection<EStatus> from, EStatus to) {
+        List<String> ids = new ArrayList<>(computerIds);
+        List<String> updated = new ArrayList<>();
+        for (int offset = 0; offset < ids.size(); offset += batchSize) {
+            updated.addAll(computerService.transitionStatusesReturningIds(ids.subList(offset, Math.min(offset + batchSize, ids.size())), from, to));
+        }
+        return updated;
+    }
+
+    private synchronized List<LifecycleEvent> drainDue(LocalDateTime now) {
+        List<LifecycleEvent> due = new ArrayList<>();
+        while (!events.isEmpty() && !events.peek().at.isAfter(now)) {
+            LifecycleEvent event = events.poll();
+            if (event.start) upcomingStarts.computeIfPresent(event.computerId, (id, count) -> count == 1 ? null : count - 1);
+            due.add(event);
+        }
+        return due;
+    }
+
+    private synchronized void requeue(List<LifecycleEvent> due) {
+        due.forEach(event -> {
+            events.add(event);
+            if (event.start) upcomingStarts.merge(event.computerId, 1, Integer::sum);
+        });
+    }
+
+    private record LifecycleEvent(LocalDateTime at, String computerId, boolean start) implements Comparable<LifecycleEvent> {
+        @Override
+        public int compareTo(LifecycleEvent other) {
+            // at the same instant an end sorts before a start, the next session wins the tick
+            int byTime = at.compareTo(other.at);
+            return byTime != 0 ? byTime : Boolean.compare(start, other.start);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.atm.inet.model.request.ComputerRequest;
 import com.atm.inet.model.request.ComputerUpdateRequest;
 import com.atm.inet.model.response.*;
 import com.atm.inet.repository.ComputerRepository;
+import com.atm.inet.service.BookingAvailabilityService;
 import com.atm.inet.service.ComputerImageService;
 import com.atm.inet.service.ComputerService;
 import com.atm.inet.service.ComputerSpecService;
@@ -25,8 +26,13 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.transaction.Transactional;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Slf4j
@@ -37,6 +43,7 @@ public class ComputerServiceImpl implements ComputerService {
     private final ComputerImageService computerImageService;
     private final ComputerSpecService computerSpecService;
     private final TypeService typeService;
+    private final BookingAvailabilityService bookingAvailabilityService;
 
 
     @Override
@@ -91,6 +98,41 @@ public class ComputerServiceImpl implements ComputerService {
 
     }
 
+    @Override
+    public List<Computer> getAllByComputerIds(Collection<String> ids) {
+        List<Computer> computers = computerRepository.findAllWithTypeByIdIn(ids);
+        if (computers.size() != ids.size())
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Computer not found!");
+        return computers;
+    }
+
+    @Override
+    public boolean transitionStatus(String id, EStatus from, EStatus to) {
+        if (!from.canTransitionTo(to))
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer can't move from " + from + " to " + to);
+        return computerRepository.compareAndSetStatus(id, from, to) == 1;
+    }
+
+    @Override
+    public List<String> transitionStatusesReturningIds(Collection<String> ids, Collection<EStatus> from, EStatus to) {
+        checkTransitions(from, to);
+        if (ids.isEmpty()) return List.of();
+        return computerRepository.compareAndSetStatusesReturningIds(ids, from.stream().map(EStatus::name).toList(), to.name());
+    }
+
+    private static void checkTransitions(Collection<EStatus> from, EStatus to) {
+        from.forEach(status -> {
+            if (!status.canTransitionTo(to))
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer can't move from " + status + " to " + to);
+        });
+    }
+
+    @Override
+    public void claimForBooking(String id, Long version) {
+        if (computerRepository.claimForBooking(id, version) == 0)
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer was booked by someone else, please try again");
+    }
+
     @Override
     public Page<ComputerResponse> getAll(Pageable pageable, ComputerSearch computerSearch) {
         Specification<Computer> computerSpecification = ComputerSpecification.getSpecification(computerSearch);
@@ -99,6 +141,25 @@ public class ComputerServiceImpl implements ComputerService {
         return computers.map(this::generateComputerResponse);
     }
 
+    @Override
+    public List<ComputerResponse> getAvailable(ComputerSearch computerSearch, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must be before to");
+
+        List<String> candidateIds = computerRepository.findBookableIds(ComputerSpecification.getSpecification(computerSearch));
+        List<String> availableIds = bookingAvailabilityService.findAvailable(candidateIds, from, to);
+        if (availableIds.isEmpty()) return List.of();
+
+        // the slot index picks the ids, only those are loaded and in one query, in the order the index returned them
+        Map<String, Computer> computers = new HashMap<>();
+        computerRepository.findAllForResponseByIdIn(availableIds).forEach(computer -> computers.put(computer.getId(), computer));
+        return availableIds.stream()
+                .map(computers::get)
+                .filter(Objects::nonNull)
+                .map(this::generateComputerResponse)
+                .toList();
+    }
+
     @Override
     @Transactional(rollbackOn = Exception.class)
     public ComputerResponse updateComputer(ComputerUpdateRequest updateComputer) {
@@ -178,6 +239,7 @@ public class ComputerServiceImpl implements ComputerService {
                 .code(computer.getCode())
                 .type(typeResponse)
                 .status(computer.getStatus().name())
+                .version(computer.getVersion())
                 .specification(specResponse)
                 .build();
     }
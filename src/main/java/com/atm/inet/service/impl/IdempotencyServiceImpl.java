@@ -0,0 +1,150 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.IdempotencyRecord;
+import com.atm.inet.repository.IdempotencyRecordRepository;
+import com.atm.inet.service.IdempotencyService;
+import com.atm.inet.utils.ExpiringLruCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Replays the stored response for a repeated Idempotency-Key. Hot keys are answered from a bounded
+ * in-memory LRU; t_idempotency_key is the source of truth so a retry landing on another node is replayed too.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${icafe.idempotency.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // a claim without a response past this is taken to be a request that died, not one still running
+    @Value("${icafe.idempotency.processing-lease-seconds:60}")
+    private long processingLeaseSeconds;
+
+    @Value("${icafe.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${icafe.idempotency.cleanup-interval-minutes:10}")
+    private long cleanupIntervalMinutes;
+
+    private ExpiringLruCache<String, CachedResponse> cache;
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void start() {
+        cache = new ExpiringLruCache<>(cacheSize, TimeUnit.MINUTES.toMillis(ttlMinutes));
+        cleaner = Executors.newSingleThreadScheduledExecutor();
+        cleaner.scheduleWithFixedDelay(this::deleteExpired, cleanupIntervalMinutes, cleanupIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        cleaner.shutdownNow();
+    }
+
+    @Override
+    public <T> T execute(String requester, String idempotencyKey, Object request, Class<T> responseType, Supplier<T> action) {
+        String id = requester + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+
+        CachedResponse cached = cache.get(id, System.currentTimeMillis());
+        if (cached != null) return replay(cached, fingerprint, responseType);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!claim(id, fingerprint, now)) {
+            IdempotencyRecord record = idempotencyRecordRepository.findById(id).orElse(null);
+            if (record == null || record.getResponse() == null)
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+
+            CachedResponse stored = new CachedResponse(record.getFingerprint(), record.getResponse());
+            cache.put(id, stored, System.currentTimeMillis());
+            return replay(stored, fingerprint, responseType);
+        }
+
+        T response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            // a failed attempt must not block the client from retrying with the same key
+            idempotencyRecordRepository.deleteById(id);
+            throw e;
+        }
+
+        String json = toJson(response);
+        try {
+            idempotencyRecordRepository.complete(id, json);
+        } catch (RuntimeException e) {
+            // the action already happened, the client gets its answer even if other nodes can't replay it
+            log.error("Failed to store the response for idempotency key {}", id, e);
+        }
+        cache.put(id, new CachedResponse(fingerprint, json), System.currentTimeMillis());
+        return response;
+    }
+
+    private boolean claim(String id, String fingerprint, LocalDateTime now) {
+        LocalDateTime expiresAt = now.plusMinutes(ttlMinutes);
+        if (idempotencyRecordRepository.insertIfAbsent(id, fingerprint, now, expiresAt) == 1) return true;
+
+        // an expired key the cleaner has not reached yet, or a stale claim, is free to reuse
+        return idempotencyRecordRepository.takeOver(id, fingerprint, now, expiresAt, now.minusSeconds(processingLeaseSeconds)) == 1
+                || idempotencyRecordRepository.insertIfAbsent(id, fingerprint, now, expiresAt) == 1;
+    }
+
+    private <T> T replay(CachedResponse cached, String fingerprint, Class<T> responseType) {
+        if (!cached.fingerprint.equals(fingerprint))
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used with a different request");
+        try {
+            return objectMapper.readValue(cached.response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response can't be read", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid request body");
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response can't be stored for idempotent replay", e);
+        }
+    }
+
+    private void deleteExpired() {
+        try {
+            int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) log.info("Removed {} expired idempotency keys", deleted);
+        } catch (Exception e) {
+            log.error("Failed to remove expired idempotency keys", e);
+        }
+    }
+
+    private record CachedResponse(String fingerprint, String response) {
+    }
+}
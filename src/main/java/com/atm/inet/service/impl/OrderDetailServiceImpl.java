@@ -3,30 +3,37 @@ package com.atm.inet.service.impl;
 import com.atm.inet.entity.Customer;
 import com.atm.inet.entity.OrderDetail;
 import com.atm.inet.entity.computer.*;
-import com.atm.inet.entity.constant.ECategory;
 import com.atm.inet.entity.constant.EStatus;
 import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.event.ComputerFreedEvent;
+import com.atm.inet.model.common.CursorPage;
+import com.atm.inet.model.common.OrderDetailSearch;
+import com.atm.inet.model.projection.BookingContext;
+import com.atm.inet.model.request.GroupOrderRequest;
 import com.atm.inet.model.request.OrderDetailRequest;
 import com.atm.inet.model.response.*;
 import com.atm.inet.repository.OrderDetailRepository;
 import com.atm.inet.service.*;
 import com.atm.inet.service.payment.MidtransService;
+import com.atm.inet.utils.KeysetCursor;
+import com.atm.inet.utils.specification.OrderDetailSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -39,87 +46,40 @@ public class OrderDetailServiceImpl implements OrderDetailService {
     private final TypePriceService typePriceService;
     private final ComputerService computerService;
     private final MidtransService midtransService;
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final OrderExpiryService orderExpiryService;
+    private final PaymentOutboxService paymentOutboxService;
+    private final RevenueRollupService revenueRollupService;
+    private final SeatLeaseService seatLeaseService;
+    private final ComputerLifecycleService computerLifecycleService;
+    private final PricingService pricingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${icafe.order.group.max-size:10}")
+    private int maxGroupSize;
 
     @Override
     @Transactional(rollbackOn = Exception.class)
     public PaymentResponse create(OrderDetailRequest request) {
 
-        CustomerResponse customerResponse = customerService.findById(request.getCustomerId());
-
-        ComputerResponse computerResponse = computerService.getById(request.getComputerId());
-        TypePrice price = typePriceService.findByTypeId(computerResponse.getType().getId());
-        log.warn("CURRENT PRICE: {}", price.getPrice() );
-
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        CustomerResponse authenticateCustomer = customerService.authenticationCustomer(authentication);
-
-        if (!customerResponse.getId().equals(authenticateCustomer.getId()))
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not allowed here!");
+        acquireLease(request.getComputerId(), authentication.getName());
 
-        log.info("START TRANSACTION");
+        BookingContext context = orderDetailRepository.findBookingContext(request.getCustomerId(), request.getComputerId(), authentication.getName())
+                .orElseThrow(() -> bookingContextError(request, authentication));
+        Customer customer = context.getCustomer();
+        Computer computer = context.getComputer();
+        TypePrice price = context.getTypePrice();
 
-
-        if (request.getBookingDate().isBefore(LocalDateTime.now()) || request.getDuration() < 0)
+        if (request.getBookingDate().isBefore(LocalDateTime.now()) || request.getDuration() <= 0)
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Booking Date or Duration!");
-        if (computerResponse.getStatus().equalsIgnoreCase(EStatus.USED.name()))
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Computer Is Already Use");
-
-        Customer customer = Customer.builder()
-                .id(customerResponse.getId())
-                .firstName(customerResponse.getFirstName())
-                .lastName(customerResponse.getLastName())
-                .email(customerResponse.getEmail())
-                .phoneNumber(customerResponse.getPhoneNumber())
-                .isMember(customerResponse.getIsMember())
-                .build();
-
-        List<TypePrice> typePrices = new ArrayList<>();
-
-        computerResponse.getType().getPrices().forEach(typePriceResponse ->
-                typePrices.add(TypePrice.builder()
-                        .id(typePriceResponse.getId())
-                        .price(typePriceResponse.getPrice())
-                        .isActive(typePriceResponse.getIsActive())
-                        .build()));
-
-        log.info("INFO DARI ORDER SERVICE");
-        System.out.println(typePrices);
-
-        FileResponse image = computerResponse.getType().getImage();
-
-        ComputerImage computerImage = ComputerImage.builder()
-                .id(image.getId())
-                .name(image.getFilename())
-                .path(price.getType().getComputerImage().getPath())
-                .build();
-
-        Type.builder()
-                .id(computerResponse.getType().getId())
-                .category(ECategory.valueOf(computerResponse.getType().getCategory()))
-                .typePrices(typePrices)
-                .computerImage(computerImage)
-                .build();
-
-        ComputerSpec spec = ComputerSpec.builder()
-                .id(computerResponse.getSpecification().getId())
-                .processor(computerResponse.getSpecification().getProcessor())
-                .ram(computerResponse.getSpecification().getRam())
-                .monitor(computerResponse.getSpecification().getMonitor())
-                .ssd(computerResponse.getSpecification().getSsd())
-                .vga(computerResponse.getSpecification().getVga())
-                .build();
-
-
-        Computer computer = Computer.builder()
-                .id(computerResponse.getId())
-                .name(computerResponse.getName())
-                .code(computerResponse.getCode())
-                .status(EStatus.valueOf(computerResponse.getStatus()))
-                .specification(spec)
-                .build();
-
 
+        // a computer in use now can still take a later booking, only the booked intervals decide
+        LocalDateTime endBookingDate = request.getBookingDate().plusHours(request.getDuration());
+        if (!bookingAvailabilityService.isAvailable(request.getComputerId(), request.getBookingDate(), endBookingDate))
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer Is Already Booked At That Time");
+        computerService.claimForBooking(computer.getId(), computer.getVersion());
 
         OrderDetail orderDetail = OrderDetail.builder()
                 .customer(customer)
@@ -127,21 +87,51 @@ public class OrderDetailServiceImpl implements OrderDetailService {
                 .computer(computer)
                 .duration(request.getDuration())
                 .typePrice(price)
+                .totalPrice(pricingService.totalFor(price, request.getBookingDate(), request.getDuration(), Boolean.TRUE.equals(customer.getIsMember())))
                 .bookingDate(request.getBookingDate())
-                .endBookingDate(request.getBookingDate().plusHours(request.getDuration()))
+                .endBookingDate(endBookingDate)
                 .transactionDate(LocalDateTime.now())
                 .build();
 
-        log.warn("CURRENT ORDER DETAIL PRICE : {}", orderDetail.getTypePrice().getPrice());
-
         orderDetailRepository.save(orderDetail);
 
-        OrderDetailResponse response = OrderDetailResponse.builder()
+        if (!bookingAvailabilityService.reserve(computer.getId(), orderDetail.getId(), orderDetail.getBookingDate(), orderDetail.getEndBookingDate()))
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer Is Already Booked At That Time");
+        releaseOnRollback(orderDetail.getId());
+        seatLeaseService.bindOrder(computer.getId(), authentication.getName(), orderDetail.getId());
+
+        OrderDetailResponse response = toResponse(orderDetail, computer.getType().getCategory().name());
+
+        orderExpiryService.schedule(orderDetail.getId(), orderDetail.getTransactionDate());
+
+        paymentOutboxService.enqueue(orderDetail.getId(), authentication.getName(), midtransService.buildTransactionRequest(response));
+
+        return PaymentResponse.builder()
+                .orderId(orderDetail.getId())
+                .status(orderDetail.getStatus().name())
+                .build();
+    }
+
+    // kept static and package-private for the JMH benchmarks
+    static Customer toCustomer(CustomerResponse customerResponse) {
+        return Customer.builder()
+                .id(customerResponse.getId())
+                .firstName(customerResponse.getFirstName())
+                .lastName(customerResponse.getLastName())
+                .email(customerResponse.getEmail())
+                .phoneNumber(customerResponse.getPhoneNumber())
+                .isMember(customerResponse.getIsMember())
+                .build();
+    }
+
+    static OrderDetailResponse toResponse(OrderDetail orderDetail, String category) {
+        Customer customer = orderDetail.getCustomer();
+        return OrderDetailResponse.builder()
                 .orderId(orderDetail.getId())
-                .computerCode(computerResponse.getCode())
-                .computerName(computerResponse.getName())
-                .type(computerResponse.getType().getCategory())
-                .price(price.getPrice() * orderDetail.getDuration())
+                .computerCode(orderDetail.getComputer().getCode())
+                .computerName(orderDetail.getComputer().getName())
+                .type(category)
+                .price(orderDetail.getTotalPrice())
                 .duration(orderDetail.getDuration())
                 .status(orderDetail.getStatus().name())
                 .customerFirstName(customer.getFirstName())
@@ -150,39 +140,240 @@ public class OrderDetailServiceImpl implements OrderDetailService {
                 .customerEmail(customer.getEmail())
                 .endBookingDate(orderDetail.getEndBookingDate())
                 .build();
+    }
+
+    // cold path only: repeat the individual lookups to tell a missing row from a forbidden customer
+    private ResponseStatusException bookingContextError(OrderDetailRequest request, Authentication authentication) {
+        CustomerResponse customerResponse = customerService.findById(request.getCustomerId());
+        Computer computer = computerService.getByComputerId(request.getComputerId());
+        typePriceService.findByTypeId(computer.getType().getId());
+
+        CustomerResponse authenticateCustomer = customerService.authenticationCustomer(authentication);
+        if (!customerResponse.getId().equals(authenticateCustomer.getId()))
+            return new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not allowed here!");
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, "Booking data not found!");
+    }
 
-        scheduler.schedule(() -> {
-            OrderDetail storedOrder = orderDetailRepository.findById(response.getOrderId()).orElse(null);
-            if (storedOrder != null && storedOrder.getStatus() == EStatusOrder.PENDING) {
-                storedOrder.setStatus(EStatusOrder.FAILED);
-                orderDetailRepository.save(storedOrder);
+    // competing checkouts for a held computer fail here, before any lookup or write
+    private void acquireLease(String computerId, String holder) {
+        if (!seatLeaseService.acquire(computerId, holder))
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer Is Being Checked Out By Another Customer");
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) seatLeaseService.release(computerId, holder);
+            }
+        });
+    }
+
+    // timers, leases and the availability index are not transactional, they follow the status once it is committed
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void releaseOnRollback(String orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) bookingAvailabilityService.release(orderId);
             }
-        }, 2, TimeUnit.MINUTES);
+        });
+    }
+
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public PaymentResponse createGroup(GroupOrderRequest request) {
+        if (request.getComputerIds() == null || request.getComputerIds().isEmpty())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At Least One Computer Is Required!");
+
+        Set<String> computerIds = new LinkedHashSet<>(request.getComputerIds());
+        if (computerIds.size() != request.getComputerIds().size())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duplicate Computer In Group Booking!");
+        if (computerIds.size() > maxGroupSize)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Group Booking Is Limited To " + maxGroupSize + " Computers!");
+        if (request.getBookingDate() == null || request.getBookingDate().isBefore(LocalDateTime.now())
+                || request.getDuration() == null || request.getDuration() <= 0)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Booking Date or Duration!");
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        computerIds.forEach(computerId -> acquireLease(computerId, authentication.getName()));
+
+        CustomerResponse customerResponse = customerService.findById(request.getCustomerId());
+        CustomerResponse authenticateCustomer = customerService.authenticationCustomer(authentication);
 
+        if (!customerResponse.getId().equals(authenticateCustomer.getId()))
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not allowed here!");
 
-        return midtransService.requestTransaction(response);
+        LocalDateTime endBookingDate = request.getBookingDate().plusHours(request.getDuration());
+        List<Computer> computers = computerService.getAllByComputerIds(computerIds);
+
+        List<String> unavailable = computers.stream()
+                .filter(computer -> !bookingAvailabilityService.isAvailable(computer.getId(), request.getBookingDate(), endBookingDate))
+                .map(Computer::getCode)
+                .toList();
+        if (!unavailable.isEmpty())
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer Is Already Booked At That Time: " + String.join(", ", unavailable));
+        computers.forEach(computer -> computerService.claimForBooking(computer.getId(), computer.getVersion()));
+
+        Customer customer = toCustomer(customerResponse);
+
+        String groupId = UUID.randomUUID().toString();
+        LocalDateTime transactionDate = LocalDateTime.now();
+        boolean member = Boolean.TRUE.equals(customerResponse.getIsMember());
+        // quoted from the in-memory price tables, the type price is only referenced by id
+        Map<String, PriceQuoteResponse> quotesByType = new HashMap<>();
+
+        List<OrderDetail> orderDetails = computers.stream()
+                .map(computer -> {
+                    PriceQuoteResponse quote = quotesByType.computeIfAbsent(computer.getType().getId(),
+                            typeId -> pricingService.quote(typeId, request.getBookingDate(), request.getDuration(), member));
+                    return OrderDetail.builder()
+                            .customer(customer)
+                            .status(EStatusOrder.PENDING)
+                            .computer(computer)
+                            .duration(request.getDuration())
+                            .typePrice(typePriceService.getReference(quote.getTypePriceId()))
+                            .totalPrice(quote.getTotalPrice())
+                            .bookingDate(request.getBookingDate())
+                            .endBookingDate(endBookingDate)
+                            .transactionDate(transactionDate)
+                            .groupId(groupId)
+                            .build();
+                })
+                .toList();
+
+        // ids are generated in memory, so hibernate.jdbc.batch_size turns this into one batched insert
+        orderDetailRepository.saveAll(orderDetails);
+
+        List<OrderDetailResponse> responses = new ArrayList<>();
+        for (OrderDetail orderDetail : orderDetails) {
+            if (!bookingAvailabilityService.reserve(orderDetail.getComputer().getId(), orderDetail.getId(), orderDetail.getBookingDate(), orderDetail.getEndBookingDate()))
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Computer Is Already Booked At That Time: " + orderDetail.getComputer().getCode());
+            releaseOnRollback(orderDetail.getId());
+            seatLeaseService.bindOrder(orderDetail.getComputer().getId(), authentication.getName(), orderDetail.getId());
+            orderExpiryService.schedule(orderDetail.getId(), orderDetail.getTransactionDate());
+
+            responses.add(toResponse(orderDetail, orderDetail.getComputer().getType().getCategory().name()));
+        }
+
+        paymentOutboxService.enqueue(groupId, authentication.getName(), midtransService.buildGroupTransactionRequest(groupId, responses));
+
+        return PaymentResponse.builder()
+                .orderId(groupId)
+                .status(EStatusOrder.PENDING.name())
+                .build();
     }
 
     @Override
     public String updateStatus(String id) {
-        OrderDetail orderDetail = orderDetailRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order Id Not Found!"));
+        findOrderOrGroup(id);
 
-        String transactionById = midtransService.getTransactionById(orderDetail.getId());
+        String transactionById = midtransService.getTransactionById(id);
 
         JSONObject jsonObject = new JSONObject(transactionById);
 
-        String transactionStatus = jsonObject.getString("transaction_status");
+        applyStatus(id, jsonObject.getString("transaction_status"));
+        return transactionById;
+    }
 
-        if (transactionStatus.equalsIgnoreCase("settlement")) {
-            orderDetail.setStatus(EStatusOrder.SUCCESS);
-            Computer computer = computerService.getByComputerId(orderDetail.getComputer().getId());
-            computer.setStatus(EStatus.ORDERED);
-            computerService.saveByComputer(computer);
-        } else if (transactionStatus.equalsIgnoreCase("expire") || transactionStatus.equalsIgnoreCase("cancel")) {
-            orderDetail.setStatus(EStatusOrder.FAILED);
+    @Override
+    public void applyStatus(String id, String transactionStatus) {
+        EStatusOrder target = toOrderStatus(transactionStatus);
+        if (target == null) return;
+        // webhooks and polls call in without a transaction, the order update and its computer and rollup writes
+        // must commit together or a retry finds the order moved and skips them for good; a batch simply joins
+        transactionTemplate.executeWithoutResult(status -> writeStatus(id, target));
+    }
+
+    private void writeStatus(String id, EStatusOrder target) {
+        List<OrderDetail> orderDetails = findOrderOrGroup(id);
+
+        List<String> freedComputerIds = new ArrayList<>();
+        for (OrderDetail orderDetail : orderDetails) {
+            // already there as far as this read knows, the conditional update below settles any race
+            if (orderDetail.getStatus() == target) continue;
+
+            String orderId = orderDetail.getId();
+            String computerId = orderDetail.getComputer().getId();
+            LocalDateTime bookingDate = orderDetail.getBookingDate();
+            LocalDateTime endBookingDate = orderDetail.getEndBookingDate();
+            if (target == EStatusOrder.SUCCESS) {
+                // Midtrans retries notifications, only the caller that flips the row counts towards the rollups
+                if (orderDetailRepository.compareAndSetStatus(orderId, EStatusOrder.PENDING, EStatusOrder.SUCCESS) == 0
+                        && !revive(orderId, computerId, bookingDate, endBookingDate)) continue;
+                orderDetail.setStatus(EStatusOrder.SUCCESS);
+                // an already ORDERED computer is fine here, a retried notification must not fail
+                if (!computerService.transitionStatus(computerId, EStatus.FREE, EStatus.ORDERED))
+                    log.info("Computer {} was not FREE when order {} settled", computerId, orderId);
+                revenueRollupService.record(orderDetail);
+                afterCommit(() -> {
+                    orderExpiryService.cancel(orderId);
+                    seatLeaseService.releaseOrder(orderId);
+                    computerLifecycleService.schedule(computerId, bookingDate, endBookingDate);
+                });
+            } else {
+                // a paid order stays paid, a late expire or cancel only fails an order that is still pending
+                if (orderDetailRepository.compareAndSetStatus(orderId, EStatusOrder.PENDING, EStatusOrder.FAILED) == 0) continue;
+                orderDetail.setStatus(EStatusOrder.FAILED);
+                afterCommit(() -> {
+                    orderExpiryService.cancel(orderId);
+                    seatLeaseService.releaseOrder(orderId);
+                    bookingAvailabilityService.release(orderId);
+                });
+                freedComputerIds.add(computerId);
+            }
         }
-        orderDetailRepository.save(orderDetail);
-        return transactionById;
+        if (!freedComputerIds.isEmpty()) eventPublisher.publishEvent(new ComputerFreedEvent(freedComputerIds));
+    }
+
+    // paid after it failed here, the order only comes back if its slot is still open
+    private boolean revive(String orderId, String computerId, LocalDateTime bookingDate, LocalDateTime endBookingDate) {
+        // the row is won first, so only the reviving caller ever holds an interval it has to give back
+        if (orderDetailRepository.compareAndSetStatus(orderId, EStatusOrder.FAILED, EStatusOrder.SUCCESS) == 0) return false;
+        if (!bookingAvailabilityService.reserve(computerId, orderId, bookingDate, endBookingDate)) {
+            orderDetailRepository.compareAndSetStatus(orderId, EStatusOrder.SUCCESS, EStatusOrder.FAILED);
+            log.warn("Order {} was paid after it failed and its slot is taken, it needs a refund", orderId);
+            return false;
+        }
+        releaseOnRollback(orderId);
+        return true;
+    }
+
+    // null for statuses that leave the order as it is, such as pending
+    private static EStatusOrder toOrderStatus(String transactionStatus) {
+        if (transactionStatus.equalsIgnoreCase("settlement")) return EStatusOrder.SUCCESS;
+        if (transactionStatus.equalsIgnoreCase("expire") || transactionStatus.equalsIgnoreCase("cancel")) return EStatusOrder.FAILED;
+        return null;
+    }
+
+    // one transaction and one commit for the whole batch, in-memory side effects of every order wait for it
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public void applyStatuses(Map<String, String> transactionStatusesById) {
+        transactionStatusesById.forEach(this::applyStatus);
+    }
+
+    // a group booking is paid with one Snap transaction whose order_id is the group id
+    private List<OrderDetail> findOrderOrGroup(String id) {
+        List<OrderDetail> orderDetails = orderDetailRepository.findById(id)
+                .map(List::of)
+                .orElseGet(() -> orderDetailRepository.findAllByGroupId(id));
+        if (orderDetails.isEmpty())
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Order Id Not Found!");
+        return orderDetails;
     }
 
 
@@ -191,67 +382,36 @@ public class OrderDetailServiceImpl implements OrderDetailService {
         return orderDetailRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transaction Data Not Found!"));
     }
     @Override
-    public List<OrderDetailResponse> getAll(Authentication authentication) {
+    public CursorPage<OrderDetailResponse> getAll(Authentication authentication, OrderDetailSearch orderDetailSearch) {
         CustomerResponse customerResponse = customerService.authenticationCustomer(authentication);
-        List<OrderDetail> orderDetails;
 
         if (customerResponse == null) {
           throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
         }
 
-        String customerId = customerResponse.getId();
-        orderDetails = orderDetailRepository.findAllByCustomer_Id(customerId);
-        List<OrderDetailResponse> orderDetailResponses = new ArrayList<>();
-
-        orderDetails.forEach(orderDetail -> {
-            log.warn("INFO DARI ORDER DETAIL SERVICE : {}", orderDetail.getComputer().getType().getTypePrices().get(0).getPrice());
-            OrderDetailResponse response = OrderDetailResponse.builder()
-                    .orderId(orderDetail.getId())
-                    .computerCode(orderDetail.getComputer().getCode())
-                    .computerName(orderDetail.getComputer().getName())
-                    .type(orderDetail.getComputer().getType().getCategory().name())
-                    .duration(orderDetail.getDuration())
-                    .price(orderDetail.getTypePrice().getPrice() * orderDetail.getDuration())
-                    .status(orderDetail.getStatus().name())
-                    .customerFirstName(orderDetail.getCustomer().getFirstName())
-                    .customerLastName(orderDetail.getCustomer().getLastName())
-                    .customerPhoneNumber(orderDetail.getCustomer().getPhoneNumber())
-                    .customerEmail(orderDetail.getCustomer().getEmail())
-                    .startBookingDate(orderDetail.getBookingDate())
-                    .endBookingDate(orderDetail.getEndBookingDate())
-                    .build();
-            orderDetailResponses.add(response);
-        });
-
-        return orderDetailResponses;
+        orderDetailSearch.setCustomerId(customerResponse.getId());
+        return findPage(orderDetailSearch);
     }
 
     @Override
-    public List<OrderDetailResponse> getAll() {
-
-        List<OrderDetail> orderDetails = orderDetailRepository.findAll();
-
-        List<OrderDetailResponse> orderDetailResponses = new ArrayList<>();
-
-        orderDetails.forEach(orderDetail -> {
-            OrderDetailResponse response = OrderDetailResponse.builder()
-                    .orderId(orderDetail.getId())
-                    .computerCode(orderDetail.getComputer().getCode())
-                    .computerName(orderDetail.getComputer().getName())
-                    .type(orderDetail.getComputer().getType().getCategory().name())
-                    .duration(orderDetail.getDuration())
-                    .price(orderDetail.getTypePrice().getPrice() * orderDetail.getDuration())
-                    .status(orderDetail.getStatus().name())
-                    .customerFirstName(orderDetail.getCustomer().getFirstName())
-                    .customerLastName(orderDetail.getCustomer().getLastName())
-                    .customerPhoneNumber(orderDetail.getCustomer().getPhoneNumber())
-                    .customerEmail(orderDetail.getCustomer().getEmail())
-                    .startBookingDate(orderDetail.getBookingDate())
-                    .endBookingDate(orderDetail.getEndBookingDate())
-                    .build();
-            orderDetailResponses.add(response);
-        });
+    public CursorPage<OrderDetailResponse> getAll(OrderDetailSearch orderDetailSearch) {
+        return findPage(orderDetailSearch);
+    }
+
+    private CursorPage<OrderDetailResponse> findPage(OrderDetailSearch orderDetailSearch) {
+        int size = orderDetailSearch.getSize();
+        List<OrderDetailResponse> orderDetails = orderDetailRepository.findSlice(OrderDetailSpecification.getSpecification(orderDetailSearch), size + 1);
 
-        return orderDetailResponses;
+        String nextCursor = null;
+        if (orderDetails.size() > size) {
+            orderDetails = orderDetails.subList(0, size);
+            OrderDetailResponse last = orderDetails.get(size - 1);
+            nextCursor = new KeysetCursor(last.getTransactionDate(), last.getOrderId()).encode();
+        }
+
+        return CursorPage.<OrderDetailResponse>builder()
+                .content(orderDetails)
+                .nextCursor(nextCursor)
+                .build();
     }
 }
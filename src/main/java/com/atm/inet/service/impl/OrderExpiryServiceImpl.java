@@ -0,0 +1,134 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.event.OrderExpiredEvent;
+import com.atm.inet.model.projection.PendingOrderView;
+import com.atm.inet.model.response.OrderExpiryStatsResponse;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.OrderExpiryService;
+import com.atm.inet.utils.HashedTimingWheel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expires PENDING orders once their payment window closes. Timers live in a hashed timing wheel
+ * holding only order ids; the wheel is rebuilt from t_order_detail on startup so nothing is lost on redeploy.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderExpiryServiceImpl implements OrderExpiryService {
+
+    private final OrderDetailRepository orderDetailRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${icafe.order.payment-window-minutes:2}")
+    private long paymentWindowMinutes;
+
+    @Value("${icafe.order.expiry.tick-millis:1000}")
+    private long tickMillis;
+
+    @Value("${icafe.order.expiry.wheel-size:512}")
+    private int wheelSize;
+
+    @Value("${icafe.order.expiry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${icafe.order.expiry.sweep-interval-seconds:60}")
+    private long sweepIntervalSeconds;
+
+    private final AtomicLong expiredTotal = new AtomicLong();
+    private HashedTimingWheel<String> wheel;
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    public void start() {
+        wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+
+        List<PendingOrderView> pendingOrders = orderDetailRepository.findAllByStatus(EStatusOrder.PENDING);
+        pendingOrders.forEach(order -> schedule(order.getId(), order.getTransactionDate()));
+        log.info("Order expiry wheel rebuilt with {} pending orders", pendingOrders.size());
+
+        ticker = Executors.newSingleThreadScheduledExecutor();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        ticker.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+    }
+
+    @Override
+    public void schedule(String orderId, LocalDateTime transactionDate) {
+        LocalDateTime deadline = transactionDate.plusMinutes(paymentWindowMinutes);
+        wheel.schedule(orderId, deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    @Override
+    public void cancel(String orderId) {
+        wheel.cancel(orderId);
+    }
+
+    @Override
+    public List<String> expireStalePending() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(paymentWindowMinutes);
+        List<String> expiredIds = orderDetailRepository.expirePendingBefore(cutoff);
+
+        expiredIds.forEach(wheel::cancel);
+        expiredTotal.addAndGet(expiredIds.size());
+        if (!expiredIds.isEmpty()) eventPublisher.publishEvent(new OrderExpiredEvent(expiredIds));
+
+        return expiredIds;
+    }
+
+    @Override
+    public OrderExpiryStatsResponse getStats() {
+        return OrderExpiryStatsResponse.builder()
+                .outstandingTimers(wheel.size())
+                .overdueMillis(wheel.getOverdueMillis(System.currentTimeMillis()))
+                .lastTickLagMillis(wheel.getLastLagMillis())
+                .expiredTotal(expiredTotal.get())
+                .build();
+    }
+
+    private void tick() {
+        List<String> dueOrders = wheel.advance(System.currentTimeMillis());
+
+        for (int from = 0; from < dueOrders.size(); from += batchSize) {
+            List<String> batch = dueOrders.subList(from, Math.min(from + batchSize, dueOrders.size()));
+            try {
+                List<String> expiredIds = orderDetailRepository.expirePendingByIds(batch);
+                expiredTotal.addAndGet(expiredIds.size());
+                if (!expiredIds.isEmpty()) eventPublisher.publishEvent(new OrderExpiredEvent(expiredIds));
+            } catch (Exception e) {
+                log.error("Failed to expire {} pending orders, retrying on next tick", batch.size(), e);
+                long retryAt = System.currentTimeMillis();
+                batch.forEach(orderId -> wheel.schedule(orderId, retryAt));
+            }
+        }
+    }
+
+    // backstop for orders whose timer lives on another node or was never registered
+    private void sweep() {
+        try {
+            List<String> expiredIds = expireStalePending();
+            if (!expiredIds.isEmpty()) log.info("Expiry sweep failed {} stale pending orders", expiredIds.size());
+        } catch (Exception e) {
+            log.error("Expiry sweep failed", e);
+        }
+    }
+}
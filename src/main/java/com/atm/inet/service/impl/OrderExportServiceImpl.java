@@ -0,0 +1,92 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.model.response.OrderDetailResponse;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.OrderExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders from a server-side cursor straight into the response, one row at a time,
+ * so memory use does not grow with the size of t_order_detail.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final String CSV_HEADER = "order_id,computer_code,computer_name,type,price,duration,status," +
+            "customer_first_name,customer_last_name,customer_phone_number,customer_email," +
+            "start_booking_date,end_booking_date,transaction_date";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final OrderDetailRepository orderDetailRepository;
+    private final ObjectMapper objectMapper;
+
+    // read-only transaction keeps autocommit off, which the PostgreSQL driver needs to honour the fetch size
+    @Override
+    @Transactional(readOnly = true)
+    public void export(LocalDateTime from, LocalDateTime to, String format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        boolean csv = FORMAT_CSV.equalsIgnoreCase(format);
+
+        if (csv) writer.write(CSV_HEADER + "\n");
+
+        try (Stream<OrderDetailResponse> orders = orderDetailRepository.streamForExport(from, to)) {
+            orders.forEach(order -> {
+                try {
+                    writer.write(csv ? toCsv(order) : objectMapper.writeValueAsString(order));
+                    writer.write("\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Order export aborted: {}", e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+    }
+
+    private String toCsv(OrderDetailResponse order) {
+        return String.join(",",
+                csvValue(order.getOrderId()),
+                csvValue(order.getComputerCode()),
+                csvValue(order.getComputerName()),
+                csvValue(order.getType()),
+                csvValue(order.getPrice()),
+                csvValue(order.getDuration()),
+                csvValue(order.getStatus()),
+                csvValue(order.getCustomerFirstName()),
+                csvValue(order.getCustomerLastName()),
+                csvValue(order.getCustomerPhoneNumber()),
+                csvValue(order.getCustomerEmail()),
+                csvValue(order.getStartBookingDate()),
+                csvValue(order.getEndBookingDate()),
+                csvValue(order.getTransactionDate()));
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) return "";
+
+        String text = value instanceof LocalDateTime date ? date.format(DATE_FORMAT) : value.toString();
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r"))
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        return text;
+    }
+}
@@ -0,0 +1,165 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.PaymentOutbox;
+import com.atm.inet.entity.constant.EOutboxStatus;
+import com.atm.inet.model.response.PaymentResponse;
+import com.atm.inet.repository.PaymentOutboxRepository;
+import com.atm.inet.service.PaymentOutboxService;
+import com.atm.inet.service.payment.MidtransService;
+import com.atm.inet.service.payment.PaymentGatewayUnavailableException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional outbox for Snap transactions. The order transaction only inserts an outbox row;
+ * the gateway call happens after commit on the dispatcher pool, so a slow Midtrans never holds a JDBC connection.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentOutboxServiceImpl implements PaymentOutboxService {
+
+    private final PaymentOutboxRepository paymentOutboxRepository;
+    private final MidtransService midtransService;
+
+    @Value("${icafe.payment.outbox.gateway-retry-seconds:10}")
+    private long gatewayRetrySeconds;
+
+    @Value("${icafe.payment.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${icafe.payment.outbox.poll-interval-millis:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${icafe.payment.outbox.claim-timeout-seconds:30}")
+    private long claimTimeoutSeconds;
+
+    @Value("${icafe.payment.outbox.dispatcher-threads:4}")
+    private int dispatcherThreads;
+
+    private ScheduledExecutorService poller;
+    private ExecutorService dispatcher;
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newFixedThreadPool(dispatcherThreads);
+        poller = Executors.newSingleThreadScheduledExecutor();
+        poller.scheduleWithFixedDelay(this::pollDue, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    @Override
+    public void enqueue(String orderId, String requestedBy, String payload) {
+        LocalDateTime now = LocalDateTime.now();
+        PaymentOutbox outbox = paymentOutboxRepository.save(PaymentOutbox.builder()
+                .orderId(orderId)
+                .requestedBy(requestedBy)
+                .payload(payload)
+                .status(EOutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(outbox.getId());
+                }
+            });
+        }
+    }
+
+    @Override
+    public PaymentResponse getPayment(String orderId, String requestedBy) {
+        PaymentOutbox outbox = paymentOutboxRepository.findByOrderId(orderId).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Payment Not Found!"));
+
+        if (outbox.getRequestedBy() != null && !outbox.getRequestedBy().equals(requestedBy))
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You are not allowed here!");
+        if (outbox.getStatus() == EOutboxStatus.FAILED)
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Failed to create payment, please order again");
+
+        return PaymentResponse.builder()
+                .orderId(outbox.getOrderId())
+                .status(outbox.getStatus().name())
+                .token(outbox.getToken())
+                .redirectUrl(outbox.getRedirectUrl())
+                .build();
+    }
+
+    private void pollDue() {
+        try {
+            paymentOutboxRepository.findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(EOutboxStatus.PENDING, LocalDateTime.now())
+                    .forEach(outbox -> submit(outbox.getId()));
+        } catch (Exception e) {
+            log.error("Failed to poll payment outbox", e);
+        }
+    }
+
+    private void submit(String outboxId) {
+        try {
+            dispatcher.execute(() -> dispatch(outboxId));
+        } catch (RejectedExecutionException e) {
+            log.warn("Payment dispatcher is shutting down, outbox {} left for the next start", outboxId);
+        }
+    }
+
+    private void dispatch(String outboxId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (paymentOutboxRepository.claim(outboxId, now, now.plusSeconds(claimTimeoutSeconds)) == 0) return;
+
+        PaymentOutbox outbox = paymentOutboxRepository.findById(outboxId).orElse(null);
+        if (outbox == null) return;
+
+        try {
+            PaymentResponse payment = midtransService.createSnapTransaction(outbox.getPayload());
+            outbox.setToken(payment.getToken());
+            outbox.setRedirectUrl(payment.getRedirectUrl());
+            outbox.setStatus(EOutboxStatus.SENT);
+            outbox.setLastError(null);
+        } catch (PaymentGatewayUnavailableException e) {
+            // nothing reached Midtrans, wait for the circuit to close without using up an attempt
+            outbox.setNextAttemptAt(LocalDateTime.now().plusSeconds(gatewayRetrySeconds));
+            outbox.setLastError(abbreviate(e.getReason()));
+            log.warn("Payment gateway unavailable, Snap transaction for order {} postponed", outbox.getOrderId());
+        } catch (Exception e) {
+            int attempts = outbox.getAttempts() + 1;
+            outbox.setAttempts(attempts);
+            outbox.setLastError(abbreviate(e.getMessage()));
+            if (attempts >= maxAttempts) {
+                outbox.setStatus(EOutboxStatus.FAILED);
+                log.error("Giving up on Snap transaction for order {} after {} attempts", outbox.getOrderId(), attempts, e);
+            } else {
+                outbox.setNextAttemptAt(LocalDateTime.now().plusSeconds(1L << attempts));
+                log.warn("Snap transaction for order {} failed, attempt {} of {}", outbox.getOrderId(), attempts, maxAttempts);
+            }
+        }
+        paymentOutboxRepository.save(outbox);
+    }
+
+    private String abbreviate(String message) {
+        if (message == null || message.length() <= 1000) return message;
+        return message.substring(0, 1000);
+    }
+}
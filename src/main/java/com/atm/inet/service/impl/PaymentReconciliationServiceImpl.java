@@ -0,0 +1,225 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.model.projection.ReconcileCandidateView;
+import com.atm.inet.model.response.ReconciliationStatsResponse;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.OrderDetailService;
+import com.atm.inet.service.PaymentReconciliationService;
+import com.atm.inet.service.payment.MidtransService;
+import com.atm.inet.service.payment.PaymentGatewayUnavailableException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catches up on lost webhooks. A run walks PENDING orders older than the grace period and FAILED orders from
+ * the lookback window in id order, asks Midtrans for the status of each page on a small fixed pool under a rate
+ * limit, and applies the page's changes in one transaction. The pool stays well under the gateway bulkhead, so
+ * a run never crowds out checkout calls. Runs on a fixed interval and on demand, one at a time.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentReconciliationServiceImpl implements PaymentReconciliationService {
+
+    private final OrderDetailRepository orderDetailRepository;
+    private final OrderDetailService orderDetailService;
+    private final MidtransService midtransService;
+
+    @Value("${icafe.reconciliation.page-size:200}")
+    private int pageSize;
+
+    @Value("${icafe.reconciliation.concurrency:4}")
+    private int concurrency;
+
+    @Value("${icafe.reconciliation.requests-per-second:20}")
+    private int requestsPerSecond;
+
+    @Value("${icafe.reconciliation.grace-minutes:10}")
+    private long graceMinutes;
+
+    @Value("${icafe.reconciliation.failed-lookback-hours:24}")
+    private long failedLookbackHours;
+
+    // 0 turns the periodic run off, the admin trigger still works
+    @Value("${icafe.reconciliation.interval-minutes:15}")
+    private long intervalMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong unchanged = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong updatedTotal = new AtomicLong();
+    private volatile LocalDateTime lastStartedAt;
+    private volatile LocalDateTime lastFinishedAt;
+
+    private RateLimiter rateLimiter;
+    private ExecutorService lookups;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void start() {
+        rateLimiter = RateLimiter.of("midtrans-reconciliation", RateLimiterConfig.custom()
+                .limitForPeriod(requestsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofSeconds(30))
+                .build());
+        lookups = Executors.newFixedThreadPool(concurrency);
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        if (intervalMinutes > 0)
+            scheduler.scheduleWithFixedDelay(this::runOnce, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        lookups.shutdownNow();
+    }
+
+    @Override
+    public ReconciliationStatsResponse trigger() {
+        if (running.get())
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Reconciliation Is Already Running!");
+        scheduler.execute(this::runOnce);
+        return getStats();
+    }
+
+    @Override
+    public ReconciliationStatsResponse getStats() {
+        return ReconciliationStatsResponse.builder()
+                .running(running.get())
+                .lastStartedAt(lastStartedAt)
+                .lastFinishedAt(lastFinishedAt)
+                .scanned(scanned.get())
+                .checked(checked.get())
+                .updated(updated.get())
+                .unchanged(unchanged.get())
+                .errors(errors.get())
+                .updatedTotal(updatedTotal.get())
+                .build();
+    }
+
+    void runOnce() {
+        if (!running.compareAndSet(false, true)) return;
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.error("Payment reconciliation stopped", e);
+        } finally {
+            lastFinishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    private void reconcile() {
+        LocalDateTime now = LocalDateTime.now();
+        lastStartedAt = now;
+        scanned.set(0);
+        checked.set(0);
+        updated.set(0);
+        unchanged.set(0);
+        errors.set(0);
+
+        LocalDateTime createdBefore = now.minusMinutes(graceMinutes);
+        LocalDateTime failedSince = now.minusHours(failedLookbackHours);
+        String afterId = "";
+        while (!Thread.currentThread().isInterrupted()) {
+            List<ReconcileCandidateView> page = orderDetailRepository.findReconcileCandidates(afterId, createdBefore, failedSince,
+                    EStatusOrder.PENDING, EStatusOrder.FAILED, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) break;
+            scanned.addAndGet(page.size());
+            afterId = page.get(page.size() - 1).getId();
+
+            if (!reconcilePage(page)) {
+                log.warn("Payment reconciliation paused, Midtrans is unavailable");
+                break;
+            }
+        }
+        log.info("Payment reconciliation checked {} transactions, updated {}, errors {}", checked.get(), updated.get(), errors.get());
+    }
+
+    // false when the gateway is unavailable and the run should stop
+    private boolean reconcilePage(List<ReconcileCandidateView> page) {
+        // a group booking is one Midtrans transaction, its seats are looked up once under the group id
+        Map<String, EStatusOrder> localStatuses = new LinkedHashMap<>();
+        page.forEach(candidate -> localStatuses.putIfAbsent(
+                candidate.getGroupId() != null ? candidate.getGroupId() : candidate.getId(), candidate.getStatus()));
+
+        Map<String, CompletableFuture<String>> remoteStatuses = new LinkedHashMap<>();
+        localStatuses.keySet().forEach(id -> remoteStatuses.put(id, CompletableFuture.supplyAsync(() -> lookup(id), lookups)));
+
+        Map<String, String> changes = new LinkedHashMap<>();
+        boolean gatewayUp = true;
+        for (Map.Entry<String, CompletableFuture<String>> entry : remoteStatuses.entrySet()) {
+            try {
+                String remoteStatus = entry.getValue().join();
+                checked.incrementAndGet();
+                if (isChange(localStatuses.get(entry.getKey()), remoteStatus)) changes.put(entry.getKey(), remoteStatus);
+                else unchanged.incrementAndGet();
+            } catch (CompletionException e) {
+                errors.incrementAndGet();
+                if (e.getCause() instanceof PaymentGatewayUnavailableException) gatewayUp = false;
+                else log.warn("Failed to look up Midtrans transaction {}", entry.getKey(), e.getCause());
+            }
+        }
+
+        apply(changes);
+        return gatewayUp;
+    }
+
+    private String lookup(String id) {
+        RateLimiter.waitForPermission(rateLimiter);
+        JSONObject body = new JSONObject(midtransService.getTransactionById(id));
+        // Midtrans answers 200 with status_code 404 for an order whose payment page was never opened
+        return body.optString("transaction_status", null);
+    }
+
+    // a pending order follows any final status, a failed one only comes back for a payment that did go through
+    private boolean isChange(EStatusOrder localStatus, String remoteStatus) {
+        if (remoteStatus == null) return false;
+        if (localStatus == EStatusOrder.FAILED) return remoteStatus.equalsIgnoreCase("settlement");
+        return remoteStatus.equalsIgnoreCase("settlement") || remoteStatus.equalsIgnoreCase("expire")
+                || remoteStatus.equalsIgnoreCase("cancel");
+    }
+
+    private void apply(Map<String, String> changes) {
+        if (changes.isEmpty()) return;
+        try {
+            orderDetailService.applyStatuses(changes);
+            updated.addAndGet(changes.size());
+            updatedTotal.addAndGet(changes.size());
+        } catch (Exception batchFailure) {
+            // one bad order must not hold back the rest of the page
+            log.warn("Batched reconciliation update failed, applying {} orders one by one", changes.size(), batchFailure);
+            changes.forEach((id, status) -> {
+                try {
+                    orderDetailService.applyStatus(id, status);
+                    updated.incrementAndGet();
+                    updatedTotal.incrementAndGet();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    log.warn("Failed to reconcile order {} to {}", id, status, e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.computer.TypePrice;
+import com.atm.inet.model.response.PriceQuoteResponse;
+import com.atm.inet.repository.TypePriceRepository;
+import com.atm.inet.service.PricingService;
+import com.atm.inet.utils.PriceTable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps one compiled {@link PriceTable} per type, built from the active type price and its rules.
+ * Readers only dereference the current map; a rule change builds a new map and swaps it in, so a quote
+ * never sees a half-applied update and needs no database read.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PricingServiceImpl implements PricingService {
+
+    private final TypePriceRepository typePriceRepository;
+
+    private final AtomicReference<Map<String, PriceTable>> tablesByType = new AtomicReference<>(Map.of());
+
+    @PostConstruct
+    public void load() {
+        Map<String, PriceTable> tables = new HashMap<>();
+        typePriceRepository.findAllActiveWithType().forEach(price -> tables.put(price.getType().getId(), compile(price)));
+        tablesByType.set(Map.copyOf(tables));
+        log.info("Price tables compiled for {} types", tables.size());
+    }
+
+    @Override
+    public PriceQuoteResponse quote(String typeId, LocalDateTime start, int duration, boolean member) {
+        if (duration <= 0)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Booking Duration!");
+
+        PriceTable table = tablesByType.get().get(typeId);
+        // types created after startup are compiled on first use
+        if (table == null) {
+            TypePrice activePrice = typePriceRepository.findByIsActiveTrueAndType_Id(typeId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Price Not Found!"));
+            table = install(typeId, activePrice);
+        }
+
+        return PriceQuoteResponse.builder()
+                .typeId(typeId)
+                .typePriceId(table.getTypePriceId())
+                .basePrice(table.getBasePrice())
+                .startBookingDate(start)
+                .duration(duration)
+                .member(member)
+                .totalPrice(table.total(start, duration, member))
+                .build();
+    }
+
+    @Override
+    public long totalFor(TypePrice activePrice, LocalDateTime start, int duration, boolean member) {
+        PriceTable table = tablesByType.get().get(activePrice.getType().getId());
+        // the caller already read a price the table does not hold yet, price with what was read
+        if (table == null || !activePrice.getId().equals(table.getTypePriceId())) table = compile(activePrice);
+        return table.total(start, duration, member);
+    }
+
+    @Override
+    public void validate(TypePrice typePrice) {
+        compile(typePrice);
+    }
+
+    @Override
+    public void publish(TypePrice activePrice) {
+        install(activePrice.getType().getId(), activePrice);
+        log.info("Price table for type {} swapped to price {}", activePrice.getType().getId(), activePrice.getId());
+    }
+
+    private PriceTable install(String typeId, TypePrice activePrice) {
+        PriceTable table = compile(activePrice);
+        tablesByType.updateAndGet(current -> {
+            Map<String, PriceTable> next = new HashMap<>(current);
+            next.put(typeId, table);
+            return Map.copyOf(next);
+        });
+        return table;
+    }
+
+    private PriceTable compile(TypePrice typePrice) {
+        try {
+            return new PriceTable(
+                    typePrice.getId(),
+                    typePrice.getPrice() == null ? 0 : typePrice.getPrice(),
+                    orZero(typePrice.getPeakStartHour()),
+                    orZero(typePrice.getPeakEndHour()),
+                    orZero(typePrice.getPeakSurchargePercent()),
+                    orZero(typePrice.getWeekendSurchargePercent()),
+                    orZero(typePrice.getMemberDiscountPercent()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid pricing rule: " + e.getMessage());
+        }
+    }
+
+    private static int orZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
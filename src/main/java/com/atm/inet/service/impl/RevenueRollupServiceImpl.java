@@ -0,0 +1,114 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.entity.RevenueRollup;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.model.projection.RevenueBucketView;
+import com.atm.inet.model.response.RevenueReportResponse;
+import com.atm.inet.repository.RevenueRollupRepository;
+import com.atm.inet.service.RevenueRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Revenue and utilisation rollups by booking hour, category and computer. Settled orders are added
+ * incrementally, so dashboard queries only aggregate the buckets in range instead of scanning t_order_detail.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RevenueRollupServiceImpl implements RevenueRollupService {
+
+    private final RevenueRollupRepository revenueRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    @PreDestroy
+    public void stop() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public void record(OrderDetail orderDetail) {
+        LocalDateTime bookingDate = orderDetail.getBookingDate();
+        ECategory category = orderDetail.getComputer().getType().getCategory();
+        String computerId = orderDetail.getComputer().getId();
+
+        revenueRollupRepository.increment(
+                RevenueRollup.bucketKey(bookingDate.toLocalDate(), bookingDate.getHour(), category, computerId),
+                bookingDate.toLocalDate(),
+                bookingDate.getHour(),
+                category.name(),
+                computerId,
+                orderDetail.getTotalPrice() != null ? orderDetail.getTotalPrice() : orderDetail.getTypePrice().getPrice() * orderDetail.getDuration(),
+                orderDetail.getDuration().longValue());
+    }
+
+    @Override
+    public List<RevenueReportResponse> getReport(LocalDate from, LocalDate to, String category, String groupBy) {
+        ECategory eCategory = parseCategory(category);
+
+        List<RevenueBucketView> buckets = switch (groupBy.toLowerCase()) {
+            case "day" -> revenueRollupRepository.sumByDay(from, to, eCategory);
+            case "hour" -> revenueRollupRepository.sumByHour(from, to, eCategory);
+            case "category" -> revenueRollupRepository.sumByCategory(from, to, eCategory);
+            case "computer" -> revenueRollupRepository.sumByComputer(from, to, eCategory);
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupBy must be day, hour, category or computer");
+        };
+
+        return buckets.stream()
+                .map(bucket -> RevenueReportResponse.builder()
+                        .bucket(bucket.getBucket())
+                        .revenue(bucket.getRevenue())
+                        .orderCount(bucket.getOrderCount())
+                        .bookedHours(bucket.getBookedHours())
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) return false;
+
+        rebuildExecutor.execute(() -> {
+            try {
+                Integer buckets = transactionTemplate.execute(status -> {
+                    revenueRollupRepository.lockForRebuild();
+                    revenueRollupRepository.deleteAllBuckets();
+                    return revenueRollupRepository.backfillFromOrders();
+                });
+                log.info("Revenue rollups rebuilt into {} buckets", buckets);
+            } catch (Exception e) {
+                log.error("Failed to rebuild revenue rollups", e);
+            } finally {
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    private ECategory parseCategory(String category) {
+        if (category == null) return null;
+        try {
+            return ECategory.valueOf(category.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown category " + category);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.event.OrderExpiredEvent;
+import com.atm.inet.service.SeatLeaseService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds a computer for one customer for the length of the Snap payment window, so a competing checkout
+ * is turned away before it touches the database or Midtrans. Leases are guarded by a fixed set of striped locks.
+ */
+@Service
+@Slf4j
+public class SeatLeaseServiceImpl implements SeatLeaseService {
+
+    private final long leaseMillis;
+    private final ReentrantLock[] stripes;
+
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    private final Map<String, String> computersByOrder = new ConcurrentHashMap<>();
+
+    public SeatLeaseServiceImpl(@Value("${icafe.order.payment-window-minutes:2}") long paymentWindowMinutes,
+                                @Value("${icafe.order.lease.stripes:64}") int stripeCount) {
+        if (Integer.bitCount(stripeCount) != 1)
+            throw new IllegalArgumentException("icafe.order.lease.stripes must be a power of two");
+
+        this.leaseMillis = TimeUnit.MINUTES.toMillis(paymentWindowMinutes);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) stripes[i] = new ReentrantLock();
+    }
+
+    @Override
+    public boolean acquire(String computerId, String holder) {
+        ReentrantLock lock = stripeFor(computerId);
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            Lease current = leases.get(computerId);
+            if (current != null && current.expiresAt > now && !current.holder.equals(holder)) return false;
+
+            if (current != null && current.orderId != null) computersByOrder.remove(current.orderId, computerId);
+            leases.put(computerId, new Lease(holder, null, now + leaseMillis));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindOrder(String computerId, String holder, String orderId) {
+        ReentrantLock lock = stripeFor(computerId);
+        lock.lock();
+        try {
+            Lease current = leases.get(computerId);
+            if (current == null || !current.holder.equals(holder)) return;
+
+            leases.put(computerId, new Lease(holder, orderId, current.expiresAt));
+            computersByOrder.put(orderId, computerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(String computerId, String holder) {
+        ReentrantLock lock = stripeFor(computerId);
+        lock.lock();
+        try {
+            Lease current = leases.get(computerId);
+            if (current == null || !current.holder.equals(holder)) return;
+
+            leases.remove(computerId);
+            if (current.orderId != null) computersByOrder.remove(current.orderId, computerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void releaseOrder(String orderId) {
+        String computerId = computersByOrder.remove(orderId);
+        if (computerId == null) return;
+
+        ReentrantLock lock = stripeFor(computerId);
+        lock.lock();
+        try {
+            Lease current = leases.get(computerId);
+            if (current != null && orderId.equals(current.orderId)) leases.remove(computerId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean releaseUnbound(String computerId, String holder) {
+        ReentrantLock lock = stripeFor(computerId);
+        lock.lock();
+        try {
+            Lease current = leases.get(computerId);
+            if (current == null || !current.holder.equals(holder) || current.orderId != null) return false;
+
+            leases.remove(computerId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onOrderExpired(OrderExpiredEvent event) {
+        event.getOrderIds().forEach(this::releaseOrder);
+    }
+
+    private ReentrantLock stripeFor(String computerId) {
+        int hash = computerId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Lease {
+        private final String holder;
+        private final String orderId;
+        private final long expiresAt;
+
+        private Lease(String holder, String orderId, long expiresAt) {
+            this.holder = holder;
+            this.orderId = orderId;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -29,4 +29,9 @@ public class TypePriceServiceImpl implements TypePriceService {
     public TypePrice findById(String id) {
         return typePriceRepository.findById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Type price not found!"));
     }
+
+    @Override
+    public TypePrice getReference(String id) {
+        return typePriceRepository.getReferenceById(id);
+    }
 }
@@ -13,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -20,6 +22,7 @@ import javax.transaction.Transactional;
 import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -29,6 +32,7 @@ public class TypeServiceImpl implements TypeService {
 
     private final TypeRepository typeRepository;
     private final ComputerImageService computerImageService;
+    private final PricingService pricingService;
 
     @Override
     public Type findTypeById(String id) {
@@ -49,6 +53,11 @@ public class TypeServiceImpl implements TypeService {
                         .id(typePrice.getId())
                         .price(typePrice.getPrice())
                         .isActive(typePrice.getIsActive())
+                        .peakStartHour(typePrice.getPeakStartHour())
+                        .peakEndHour(typePrice.getPeakEndHour())
+                        .peakSurchargePercent(typePrice.getPeakSurchargePercent())
+                        .weekendSurchargePercent(typePrice.getWeekendSurchargePercent())
+                        .memberDiscountPercent(typePrice.getMemberDiscountPercent())
                         .build())
                 .toList();
 
@@ -72,10 +81,17 @@ public class TypeServiceImpl implements TypeService {
         TypePrice typePrice = type.getTypePrices().stream().filter(TypePrice::getIsActive).findFirst().orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Price not found!"));
         typePrice.setIsActive(false);
 
+        // a rule left out of the request keeps its current value
         TypePrice prices = TypePrice.builder()
                 .price(request.getPrice())
                 .isActive(true)
+                .peakStartHour(Optional.ofNullable(request.getPeakStartHour()).orElse(typePrice.getPeakStartHour()))
+                .peakEndHour(Optional.ofNullable(request.getPeakEndHour()).orElse(typePrice.getPeakEndHour()))
+                .peakSurchargePercent(Optional.ofNullable(request.getPeakSurchargePercent()).orElse(typePrice.getPeakSurchargePercent()))
+                .weekendSurchargePercent(Optional.ofNullable(request.getWeekendSurchargePercent()).orElse(typePrice.getWeekendSurchargePercent()))
+                .memberDiscountPercent(Optional.ofNullable(request.getMemberDiscountPercent()).orElse(typePrice.getMemberDiscountPercent()))
                 .build();
+        pricingService.validate(prices);
 
         type.addTypePrices(prices);
 
@@ -84,11 +100,27 @@ public class TypeServiceImpl implements TypeService {
         prices.setType(type);
 
         typeRepository.save(type);
+        publishAfterCommit(type);
 
         return typeResponseGenerator(type);
 
     }
 
+    // orders keep pricing with the old table until the new price is visible to them
+    private void publishAfterCommit(Type type) {
+        TypePrice activePrice = type.getTypePrices().stream().filter(TypePrice::getIsActive).findFirst().orElseThrow();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pricingService.publish(activePrice);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pricingService.publish(activePrice);
+            }
+        });
+    }
+
     @Override
     public Type getOrSave(ECategory category, TypePrice price) {
         return typeRepository.findByCategory(category).orElseGet(() ->
@@ -0,0 +1,213 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.event.ComputerFreedEvent;
+import com.atm.inet.event.OrderExpiredEvent;
+import com.atm.inet.model.response.WaitlistOfferResponse;
+import com.atm.inet.repository.ComputerRepository;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.BookingAvailabilityService;
+import com.atm.inet.service.SeatLeaseService;
+import com.atm.inet.service.WaitlistService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First come, first served waitlist per category. Customers wait on an SSE stream instead of polling the
+ * computer list; when a computer of their category frees up the head of the queue gets a seat lease for
+ * the claim window and an "offer" event. A claim that lapses without an order passes the computer on.
+ */
+@Service
+@Slf4j
+public class WaitlistServiceImpl implements WaitlistService {
+
+    // a waiter is only offered a computer that is open for at least the shortest booking
+    private static final int MIN_CLAIM_HOURS = 1;
+
+    private final ComputerRepository computerRepository;
+    private final OrderDetailRepository orderDetailRepository;
+    private final BookingAvailabilityService bookingAvailabilityService;
+    private final SeatLeaseService seatLeaseService;
+    private final long claimSeconds;
+    private final long emitterTimeoutMillis;
+
+    // insertion ordered, a reconnecting customer keeps their place in line
+    private final Map<ECategory, LinkedHashMap<String, Waiter>> queues = new EnumMap<>(ECategory.class);
+    private ScheduledExecutorService dispatcher;
+
+    public WaitlistServiceImpl(ComputerRepository computerRepository,
+                               OrderDetailRepository orderDetailRepository,
+                               BookingAvailabilityService bookingAvailabilityService,
+                               SeatLeaseService seatLeaseService,
+                               @Value("${icafe.waitlist.claim-seconds:60}") long claimSeconds,
+                               @Value("${icafe.waitlist.emitter-timeout-minutes:30}") long emitterTimeoutMinutes,
+                               @Value("${icafe.order.payment-window-minutes:2}") long paymentWindowMinutes) {
+        // the claim rides on a seat lease, which only lives for the payment window
+        if (claimSeconds > TimeUnit.MINUTES.toSeconds(paymentWindowMinutes))
+            throw new IllegalArgumentException("icafe.waitlist.claim-seconds must not exceed the payment window");
+
+        this.computerRepository = computerRepository;
+        this.orderDetailRepository = orderDetailRepository;
+        this.bookingAvailabilityService = bookingAvailabilityService;
+        this.seatLeaseService = seatLeaseService;
+        this.claimSeconds = claimSeconds;
+        this.emitterTimeoutMillis = TimeUnit.MINUTES.toMillis(emitterTimeoutMinutes);
+        for (ECategory category : ECategory.values()) queues.put(category, new LinkedHashMap<>());
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @PreDestroy
+    public void stop() {
+        dispatcher.shutdownNow();
+    }
+
+    @Override
+    public SseEmitter join(ECategory category, String holder) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Waiter waiter = new Waiter(holder, emitter);
+        emitter.onCompletion(() -> remove(category, waiter));
+        emitter.onTimeout(() -> remove(category, waiter));
+        emitter.onError(e -> remove(category, waiter));
+
+        LinkedHashMap<String, Waiter> queue = queues.get(category);
+        Waiter previous;
+        int position = 1;
+        synchronized (queue) {
+            previous = queue.put(holder, waiter);
+            for (String waiting : queue.keySet()) {
+                if (waiting.equals(holder)) break;
+                position++;
+            }
+        }
+        if (previous != null) previous.emitter().complete();
+
+        if (!send(emitter, "position", position)) remove(category, waiter);
+        return emitter;
+    }
+
+    @Override
+    public void leave(ECategory category, String holder) {
+        LinkedHashMap<String, Waiter> queue = queues.get(category);
+        Waiter waiter;
+        synchronized (queue) {
+            waiter = queue.remove(holder);
+        }
+        if (waiter != null) waiter.emitter().complete();
+    }
+
+    @Override
+    public Map<ECategory, Integer> getQueueSizes() {
+        Map<ECategory, Integer> sizes = new EnumMap<>(ECategory.class);
+        queues.forEach((category, queue) -> {
+            synchronized (queue) {
+                sizes.put(category, queue.size());
+            }
+        });
+        return sizes;
+    }
+
+    // a computer freed inside a transaction is only offered once the release is committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onComputerFreed(ComputerFreedEvent event) {
+        List<String> computerIds = List.copyOf(event.getComputerIds());
+        dispatcher.execute(() -> dispatch(computerIds));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderExpired(OrderExpiredEvent event) {
+        List<String> orderIds = List.copyOf(event.getOrderIds());
+        dispatcher.execute(() -> dispatch(orderDetailRepository.findComputerIdsByIdIn(orderIds)));
+    }
+
+    void dispatch(Collection<String> computerIds) {
+        if (computerIds.isEmpty()) return;
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Computer computer : computerRepository.findAllWithTypeByIdIn(computerIds)) {
+                if (isClaimable(computer, now)) offer(computer);
+            }
+        } catch (Exception e) {
+            log.error("Failed to dispatch waitlist offers for computers {}", computerIds, e);
+        }
+    }
+
+    private boolean isClaimable(Computer computer, LocalDateTime now) {
+        if (computer.getStatus() == EStatus.USED || computer.getStatus() == EStatus.DELETED) return false;
+        return bookingAvailabilityService.isAvailable(computer.getId(), now, now.plusHours(MIN_CLAIM_HOURS));
+    }
+
+    private void offer(Computer computer) {
+        LinkedHashMap<String, Waiter> queue = queues.get(computer.getType().getCategory());
+        while (true) {
+            Waiter waiter;
+            synchronized (queue) {
+                Iterator<Waiter> waiters = queue.values().iterator();
+                if (!waiters.hasNext()) return;
+                waiter = waiters.next();
+                // someone is already checking out this computer, the head of the line keeps its place
+                if (!seatLeaseService.acquire(computer.getId(), waiter.holder())) return;
+                waiters.remove();
+            }
+
+            WaitlistOfferResponse offer = WaitlistOfferResponse.builder()
+                    .computerId(computer.getId())
+                    .computerCode(computer.getCode())
+                    .category(computer.getType().getCategory().name())
+                    .claimExpiresAt(LocalDateTime.now().plusSeconds(claimSeconds))
+                    .build();
+            if (send(waiter.emitter(), "offer", offer)) {
+                waiter.emitter().complete();
+                dispatcher.schedule(() -> expireClaim(computer.getId(), waiter.holder()), claimSeconds, TimeUnit.SECONDS);
+                log.info("Offered computer {} to waitlisted customer {}", computer.getId(), waiter.holder());
+                return;
+            }
+            // the stream is gone, the computer goes to the next customer in line
+            seatLeaseService.releaseUnbound(computer.getId(), waiter.holder());
+        }
+    }
+
+    private void expireClaim(String computerId, String holder) {
+        // a lease bound to an order means the claim was used
+        if (!seatLeaseService.releaseUnbound(computerId, holder)) return;
+        log.info("Waitlist claim on computer {} by {} lapsed", computerId, holder);
+        dispatch(List.of(computerId));
+    }
+
+    private void remove(ECategory category, Waiter waiter) {
+        LinkedHashMap<String, Waiter> queue = queues.get(category);
+        synchronized (queue) {
+            queue.remove(waiter.holder(), waiter);
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    private record Waiter(String holder, SseEmitter emitter) {
+    }
+}
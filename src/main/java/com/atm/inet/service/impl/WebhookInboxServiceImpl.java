@@ -0,0 +1,237 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.WebhookInbox;
+import com.atm.inet.entity.constant.EInboxStatus;
+import com.atm.inet.model.request.MidtransNotification;
+import com.atm.inet.model.response.WebhookInboxStatsResponse;
+import com.atm.inet.repository.WebhookInboxRepository;
+import com.atm.inet.service.OrderDetailService;
+import com.atm.inet.service.WebhookInboxService;
+import com.atm.inet.utils.ExpiringLruCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Takes Midtrans notifications off the request thread. Accepted notifications go to one bounded in-memory
+ * queue per worker, partitioned by order id so a single order's updates stay in order, and the webhook returns
+ * without touching the database. A full queue, a failed update or a shutdown spills to t_webhook_inbox, which a
+ * poller retries with backoff. Retried notifications are dropped by (order_id, transaction_status).
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WebhookInboxServiceImpl implements WebhookInboxService {
+
+    private final WebhookInboxRepository webhookInboxRepository;
+    private final OrderDetailService orderDetailService;
+
+    @Value("${icafe.webhook.workers:4}")
+    private int workerCount;
+
+    @Value("${icafe.webhook.queue-capacity:1024}")
+    private int queueCapacity;
+
+    @Value("${icafe.webhook.batch-size:20}")
+    private int batchSize;
+
+    @Value("${icafe.webhook.dedupe-size:10000}")
+    private int dedupeSize;
+
+    @Value("${icafe.webhook.dedupe-minutes:60}")
+    private long dedupeMinutes;
+
+    @Value("${icafe.webhook.poll-interval-millis:1000}")
+    private long pollIntervalMillis;
+
+    @Value("${icafe.webhook.claim-timeout-seconds:30}")
+    private long claimTimeoutSeconds;
+
+    @Value("${icafe.webhook.max-attempts:5}")
+    private int maxAttempts;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ExpiringLruCache<String, Boolean> recentKeys;
+    private List<BlockingQueue<InboxItem>> partitions;
+    private ExecutorService workers;
+    private ScheduledExecutorService poller;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        recentKeys = new ExpiringLruCache<>(dedupeSize, TimeUnit.MINUTES.toMillis(dedupeMinutes));
+        partitions = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) partitions.add(new ArrayBlockingQueue<>(Math.max(1, queueCapacity / workerCount)));
+
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount);
+        partitions.forEach(partition -> workers.execute(() -> drain(partition)));
+        poller = Executors.newSingleThreadScheduledExecutor();
+        poller.scheduleWithFixedDelay(this::pollDurable, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        poller.shutdownNow();
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+
+        // whatever is still queued in memory is written down for the next start
+        List<InboxItem> leftover = new ArrayList<>();
+        partitions.forEach(partition -> partition.drainTo(leftover));
+        leftover.forEach(item -> spill(item, 0));
+        if (!leftover.isEmpty()) log.info("Moved {} queued webhook notifications to the inbox table", leftover.size());
+    }
+
+    @Override
+    public void accept(MidtransNotification notification, String payload) {
+        String key = notification.getOrderId() + "|" + notification.getTransactionStatus();
+        // Midtrans retries until it gets a 200, a status already taken in is acknowledged and dropped
+        if (!recentKeys.putIfAbsent(key, Boolean.TRUE, System.currentTimeMillis())) {
+            duplicates.incrementAndGet();
+            return;
+        }
+
+        InboxItem item = new InboxItem(key, notification.getOrderId(), notification.getTransactionStatus(), payload);
+        accepted.incrementAndGet();
+        if (running && partitionFor(item.orderId()).offer(item)) return;
+
+        try {
+            spill(item, 0);
+        } catch (RuntimeException e) {
+            // not stored anywhere, let the Midtrans retry through
+            recentKeys.remove(key);
+            throw e;
+        }
+    }
+
+    @Override
+    public WebhookInboxStatsResponse getStats() {
+        return WebhookInboxStatsResponse.builder()
+                .queued(partitions.stream().mapToInt(BlockingQueue::size).sum())
+                .durablePending(webhookInboxRepository.countByStatus(EInboxStatus.PENDING))
+                .acceptedTotal(accepted.get())
+                .duplicatesTotal(duplicates.get())
+                .spilledTotal(spilled.get())
+                .processedTotal(processed.get())
+                .failedTotal(failed.get())
+                .build();
+    }
+
+    private BlockingQueue<InboxItem> partitionFor(String orderId) {
+        return partitions.get(Math.floorMod(orderId.hashCode(), partitions.size()));
+    }
+
+    private void drain(BlockingQueue<InboxItem> partition) {
+        List<InboxItem> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                InboxItem first = partition.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                partition.drainTo(batch, batchSize - 1);
+                batch.forEach(this::apply);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(InboxItem item) {
+        try {
+            orderDetailService.applyStatus(item.orderId(), item.transactionStatus());
+            processed.incrementAndGet();
+        } catch (ResponseStatusException e) {
+            if (e.getStatus().is4xxClientError()) {
+                failed.incrementAndGet();
+                log.warn("Dropping Midtrans notification {}: {}", item.key(), e.getReason());
+            } else {
+                retryLater(item, e);
+            }
+        } catch (Exception e) {
+            retryLater(item, e);
+        }
+    }
+
+    private void retryLater(InboxItem item, Exception cause) {
+        log.warn("Midtrans notification {} failed, moving it to the inbox table", item.key(), cause);
+        try {
+            spill(item, 1);
+        } catch (Exception e) {
+            // not stored anywhere, the next Midtrans retry must get through the dedupe
+            recentKeys.remove(item.key());
+            failed.incrementAndGet();
+            log.error("Could not store Midtrans notification {}, waiting for its retry or reconciliation", item.key(), e);
+        }
+    }
+
+    private void spill(InboxItem item, int attempts) {
+        LocalDateTime now = LocalDateTime.now();
+        webhookInboxRepository.upsertPending(item.key(), item.orderId(), item.transactionStatus(), item.payload(),
+                attempts, now.plusSeconds(attempts == 0 ? 0 : 1L << attempts), now);
+        spilled.incrementAndGet();
+    }
+
+    private void pollDurable() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            webhookInboxRepository.findTop50ByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAt(EInboxStatus.PENDING, now)
+                    .forEach(row -> {
+                        if (webhookInboxRepository.claim(row.getId(), now, now.plusSeconds(claimTimeoutSeconds)) == 1)
+                            applyDurable(row);
+                    });
+        } catch (Exception e) {
+            log.error("Failed to poll webhook inbox", e);
+        }
+    }
+
+    private void applyDurable(WebhookInbox row) {
+        try {
+            orderDetailService.applyStatus(row.getOrderId(), row.getTransactionStatus());
+            row.setStatus(EInboxStatus.PROCESSED);
+            row.setLastError(null);
+            processed.incrementAndGet();
+        } catch (Exception e) {
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            row.setLastError(abbreviate(e.getMessage()));
+            boolean permanent = e instanceof ResponseStatusException statusException && statusException.getStatus().is4xxClientError();
+            if (permanent || attempts >= maxAttempts) {
+                row.setStatus(EInboxStatus.FAILED);
+                failed.incrementAndGet();
+                log.error("Giving up on Midtrans notification {} after {} attempts", row.getId(), attempts, e);
+            } else {
+                row.setNextAttemptAt(LocalDateTime.now().plusSeconds(1L << attempts));
+                log.warn("Midtrans notification {} failed, attempt {} of {}", row.getId(), attempts, maxAttempts);
+            }
+        }
+        webhookInboxRepository.save(row);
+    }
+
+    private String abbreviate(String message) {
+        if (message == null || message.length() <= 1000) return message;
+        return message.substring(0, 1000);
+    }
+
+    private record InboxItem(String key, String orderId, String transactionStatus, String payload) {
+    }
+}
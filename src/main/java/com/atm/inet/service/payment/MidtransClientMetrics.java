@@ -0,0 +1,72 @@
+package com.atm.inet.service.payment;
+
+import com.atm.inet.model.response.MidtransClientStatsResponse;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the pooled Midtrans client: how often a connection was leased from the pool, how long callers
+ * waited for one, and how long the requests themselves took. Updated on every call, read by the monitoring API.
+ */
+@Component
+public class MidtransClientMetrics {
+
+    private final LongAdder leases = new LongAdder();
+    private final LongAdder leaseTimeouts = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder requestNanos = new LongAdder();
+    private final AtomicLong maxRequestNanos = new AtomicLong();
+
+    private volatile ConnPoolControl<HttpRoute> pool;
+
+    public void bindPool(ConnPoolControl<HttpRoute> pool) {
+        this.pool = pool;
+    }
+
+    public void recordLease(long waitNanos) {
+        leases.increment();
+        leaseWaitNanos.add(waitNanos);
+        maxLeaseWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public void recordLeaseTimeout() {
+        leaseTimeouts.increment();
+    }
+
+    public void recordRequest(long elapsedNanos, boolean failed) {
+        requests.increment();
+        if (failed) failedRequests.increment();
+        requestNanos.add(elapsedNanos);
+        maxRequestNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    public MidtransClientStatsResponse snapshot() {
+        PoolStats totals = pool == null ? new PoolStats(0, 0, 0, 0) : pool.getTotalStats();
+        long leaseCount = leases.sum();
+        long requestCount = requests.sum();
+        return MidtransClientStatsResponse.builder()
+                .leasedConnections(totals.getLeased())
+                .availableConnections(totals.getAvailable())
+                .pendingLeases(totals.getPending())
+                .maxConnections(totals.getMax())
+                .leasesTotal(leaseCount)
+                .leaseTimeoutsTotal(leaseTimeouts.sum())
+                .averageLeaseWaitMillis(leaseCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(leaseWaitNanos.sum() / leaseCount))
+                .maxLeaseWaitMillis(TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get()))
+                .requestsTotal(requestCount)
+                .failedRequestsTotal(failedRequests.sum())
+                .averageLatencyMillis(requestCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(requestNanos.sum() / requestCount))
+                .maxLatencyMillis(TimeUnit.NANOSECONDS.toMillis(maxRequestNanos.get()))
+                .build();
+    }
+}
@@ -1,24 +1,31 @@
 package com.atm.inet.service.payment;
 
+import com.atm.inet.model.request.MidtransNotification;
 import com.atm.inet.model.response.OrderDetailResponse;
 import com.atm.inet.model.response.PaymentResponse;
+import com.atm.inet.utils.SingleFlight;
 import com.midtrans.Midtrans;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
-import javax.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class MidtransService {
 
     @Value("${icafe.midtrans.server-key}")
@@ -28,24 +35,50 @@ public class MidtransService {
     @Value("${icafe.midtrans.client-key}")
     private String clientKey;
 
-    private final RestTemplate restTemplate;
+    // pointed at a stand-in server for offline load runs
+    @Value("${icafe.midtrans.snap-url:https://app.sandbox.midtrans.com/snap/v1/transactions}")
+    private String snapUrl;
 
-    @Transactional(rollbackOn = Exception.class)
-    public PaymentResponse requestTransaction(OrderDetailResponse respose) {
+    @Value("${icafe.midtrans.api-url:https://api.sandbox.midtrans.com/v2}")
+    private String apiUrl;
 
-        Midtrans.serverKey = serverKey;
+    // seat leases and the expiry wheel use the same window
+    @Value("${icafe.order.payment-window-minutes:2}")
+    private int paymentWindowMinutes;
+
+    private final RestTemplate midtransRestTemplate;
+    private final PaymentGatewayGuard paymentGatewayGuard;
+
+    // a webhook burst and client polls for one order share a single status call
+    private final SingleFlight<String, String> statusLookups = new SingleFlight<>();
+
+    // the pooled client from MidtransClientConfiguration, not the general purpose RestTemplate
+    public MidtransService(@Qualifier("midtransRestTemplate") RestTemplate midtransRestTemplate, PaymentGatewayGuard paymentGatewayGuard) {
+        this.midtransRestTemplate = midtransRestTemplate;
+        this.paymentGatewayGuard = paymentGatewayGuard;
+    }
+
+    public String buildTransactionRequest(OrderDetailResponse respose) {
+        return new JSONObject(requestTransactionObj(respose.getOrderId(), List.of(respose))).toString();
+    }
+
+    // one Snap transaction for a whole group booking, each seat becomes an item_details entry
+    public String buildGroupTransactionRequest(String groupId, List<OrderDetailResponse> responses) {
+        return new JSONObject(requestTransactionObj(groupId, responses)).toString();
+    }
 
-        String apiUrl = "https://app.sandbox.midtrans.com/snap/v1/transactions";
+    public PaymentResponse createSnapTransaction(String transactionRequest) {
+
+        Midtrans.serverKey = serverKey;
 
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("Authorization", "Basic " + Base64.getEncoder().encodeToString((serverKey + ":").getBytes()));
 
-        Map<String, Object> transRequest = requestTransactionObj(respose);
-
-        HttpEntity<Map<String, Object>> requestOrder = new HttpEntity<>(transRequest, headers);
+        HttpEntity<String> requestOrder = new HttpEntity<>(transactionRequest, headers);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(apiUrl, HttpMethod.POST, requestOrder, String.class);
+        ResponseEntity<String> responseEntity = paymentGatewayGuard.call(() ->
+                midtransRestTemplate.exchange(snapUrl, HttpMethod.POST, requestOrder, String.class));
 
         if(responseEntity.getStatusCode().is2xxSuccessful()){
             String responseBody = responseEntity.getBody();
@@ -66,30 +99,73 @@ public class MidtransService {
 
     }
     public String getTransactionById(String id){
+        return statusLookups.execute(id, () -> fetchTransaction(id));
+    }
 
-        String apiUrl = String.format("https://api.sandbox.midtrans.com/v2/%s/status", id);
+    private String fetchTransaction(String id) {
+        String statusUrl = String.format("%s/%s/status", apiUrl, id);
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.set("Authorization", "Basic " + Base64.getEncoder().encodeToString((serverKey + ":").getBytes()));
 
         HttpEntity<String> requestEntity = new HttpEntity<>(headers);
 
-        ResponseEntity<String> responseEntity = restTemplate.exchange(apiUrl, HttpMethod.GET,requestEntity,String.class);
+        ResponseEntity<String> responseEntity = paymentGatewayGuard.call(() ->
+                midtransRestTemplate.exchange(statusUrl, HttpMethod.GET, requestEntity, String.class));
 
         return responseEntity.getBody();
     }
 
-    private Map<String, Object> requestTransactionObj(OrderDetailResponse respose) {
-        Map<String, Object> transDetail = new HashMap<>();
-        transDetail.put("order_id", respose.getOrderId());
-        transDetail.put("gross_amount", respose.getPrice());
+    public MidtransNotification parseNotification(String payload) {
+        try {
+            JSONObject body = new JSONObject(payload);
+            return MidtransNotification.builder()
+                    .orderId(body.getString("order_id"))
+                    .statusCode(body.getString("status_code"))
+                    .grossAmount(body.getString("gross_amount"))
+                    .transactionStatus(body.getString("transaction_status"))
+                    .signatureKey(body.getString("signature_key"))
+                    .build();
+        } catch (JSONException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Midtrans notification: " + e.getMessage());
+        }
+    }
+
+    // signature_key = SHA512(order_id + status_code + gross_amount + server key), checked without calling Midtrans back
+    public void verifySignature(MidtransNotification notification) {
+        String expected = sha512Hex(notification.getOrderId() + notification.getStatusCode() + notification.getGrossAmount() + serverKey);
+        boolean valid = MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.US_ASCII),
+                notification.getSignatureKey().toLowerCase().getBytes(StandardCharsets.US_ASCII));
+        if (!valid)
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Invalid Midtrans signature");
+    }
+
+    private static String sha512Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-512");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-512 is not available", e);
+        }
+    }
+
+    private Map<String, Object> requestTransactionObj(String orderId, List<OrderDetailResponse> responses) {
+        OrderDetailResponse respose = responses.get(0);
 
-        Map<String, Object> items = new HashMap<>();
-        items.put("id", respose.getComputerCode());
-        items.put("name", respose.getComputerName());
-        items.put("quantity", 1);
-        items.put("category", respose.getType());
-        items.put("price", respose.getPrice());
+        Map<String, Object> transDetail = new HashMap<>();
+        transDetail.put("order_id", orderId);
+        transDetail.put("gross_amount", responses.stream().mapToLong(OrderDetailResponse::getPrice).sum());
+
+        List<Map<String, Object>> items = responses.stream().map(item -> {
+            Map<String, Object> itemDetail = new HashMap<>();
+            itemDetail.put("id", item.getComputerCode());
+            itemDetail.put("name", item.getComputerName());
+            itemDetail.put("quantity", 1);
+            itemDetail.put("category", item.getType());
+            itemDetail.put("price", item.getPrice());
+            return itemDetail;
+        }).toList();
 
         Map<String, Object> customer = new HashMap<>();
         customer.put("first_name", respose.getCustomerFirstName());
@@ -98,7 +174,7 @@ public class MidtransService {
         customer.put("phone", respose.getCustomerPhoneNumber());
 
         Map<String, Object> expiration = new HashMap<>();
-        expiration.put("duration", 2);
+        expiration.put("duration", paymentWindowMinutes);
         expiration.put("unit", "minute");
 
         Map<String, Object> callBack = new HashMap<>();
@@ -0,0 +1,93 @@
+package com.atm.inet.service.payment;
+
+import com.atm.inet.model.response.PaymentGatewayStatsResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker and semaphore bulkhead around every Midtrans call. The bulkhead caps how many request
+ * threads can wait on the gateway at once; the breaker opens when too many calls fail or run slow, answers
+ * 503 straight away while open, and lets a few probe calls through once the wait is over.
+ */
+@Component
+@Slf4j
+public class PaymentGatewayGuard {
+
+    private static final String NAME = "midtrans";
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final LongAdder bulkheadRejected = new LongAdder();
+
+    public PaymentGatewayGuard(@Value("${icafe.payment.gateway.failure-rate-threshold:50}") float failureRateThreshold,
+                               @Value("${icafe.payment.gateway.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+                               @Value("${icafe.payment.gateway.slow-call-millis:3000}") long slowCallMillis,
+                               @Value("${icafe.payment.gateway.sliding-window-size:20}") int slidingWindowSize,
+                               @Value("${icafe.payment.gateway.minimum-calls:10}") int minimumCalls,
+                               @Value("${icafe.payment.gateway.open-seconds:30}") long openSeconds,
+                               @Value("${icafe.payment.gateway.half-open-calls:3}") int halfOpenCalls,
+                               @Value("${icafe.payment.gateway.max-concurrent-calls:20}") int maxConcurrentCalls,
+                               @Value("${icafe.payment.gateway.max-wait-millis:100}") long maxWaitMillis) {
+        this.circuitBreaker = CircuitBreaker.of(NAME, CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMillis))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofSeconds(openSeconds))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // a 4xx is a bad request from our side, not a sign the gateway is unhealthy
+                .ignoreExceptions(HttpClientErrorException.class)
+                .build());
+        this.bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ofMillis(maxWaitMillis))
+                .build());
+
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Payment gateway circuit {}", event.getStateTransition()));
+    }
+
+    public <T> T call(Supplier<T> gatewayCall) {
+        // the bulkhead sits outside the breaker, so rejected calls never count as gateway failures
+        Supplier<T> guarded = Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, gatewayCall));
+        try {
+            return guarded.get();
+        } catch (CallNotPermittedException e) {
+            throw new PaymentGatewayUnavailableException("Payment gateway is unavailable, please try again later");
+        } catch (BulkheadFullException e) {
+            bulkheadRejected.increment();
+            throw new PaymentGatewayUnavailableException("Payment gateway is busy, please try again later");
+        }
+    }
+
+    public PaymentGatewayStatsResponse getStats() {
+        CircuitBreaker.Metrics breaker = circuitBreaker.getMetrics();
+        Bulkhead.Metrics concurrency = bulkhead.getMetrics();
+        return PaymentGatewayStatsResponse.builder()
+                .state(circuitBreaker.getState().name())
+                .failureRate(breaker.getFailureRate())
+                .slowCallRate(breaker.getSlowCallRate())
+                .bufferedCalls(breaker.getNumberOfBufferedCalls())
+                .failedCalls(breaker.getNumberOfFailedCalls())
+                .slowCalls(breaker.getNumberOfSlowCalls())
+                .notPermittedCalls(breaker.getNumberOfNotPermittedCalls())
+                .availableConcurrentCalls(concurrency.getAvailableConcurrentCalls())
+                .maxConcurrentCalls(concurrency.getMaxAllowedConcurrentCalls())
+                .bulkheadRejectedCalls(bulkheadRejected.sum())
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.atm.inet.service.payment;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+// thrown before any request is sent, so callers can retry later without counting it as a failed attempt
+public class PaymentGatewayUnavailableException extends ResponseStatusException {
+
+    public PaymentGatewayUnavailableException(String reason) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+    }
+}
@@ -0,0 +1,57 @@
+package com.atm.inet.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded access-ordered cache whose entries also expire after a fixed time to live.
+ * Evicts the least recently used entry once {@code maxSize} is exceeded. All operations are synchronized.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    public ExpiringLruCache(int maxSize, long ttlMillis) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize must be positive");
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key, long nowMillis) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) return null;
+        if (entry.expiresAt <= nowMillis) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value, long nowMillis) {
+        entries.put(key, new Entry<>(value, nowMillis + ttlMillis));
+    }
+
+    // false when a live entry already holds the key, lets concurrent callers race for a key safely
+    public synchronized boolean putIfAbsent(K key, V value, long nowMillis) {
+        if (get(key, nowMillis) != null) return false;
+        put(key, value, nowMillis);
+        return true;
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.atm.inet.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel keyed by an arbitrary timer key. Scheduling and cancelling are O(1),
+ * and {@link #advance(long)} only visits the buckets for the ticks that elapsed.
+ * Timers further away than one revolution stay in their bucket until their tick comes round.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<Set<T>> buckets;
+    private final Map<T, Timer> timers = new HashMap<>();
+
+    private long currentTick;
+    private long lastLagMillis;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) throw new IllegalArgumentException("tickMillis must be positive");
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1)
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) buckets.add(new LinkedHashSet<>());
+    }
+
+    public synchronized void schedule(T key, long deadlineMillis) {
+        cancel(key);
+
+        long elapsed = Math.max(deadlineMillis - startMillis, 0);
+        long tick = Math.max((elapsed + tickMillis - 1) / tickMillis, currentTick);
+
+        timers.put(key, new Timer(deadlineMillis, tick));
+        buckets.get((int) (tick & mask)).add(key);
+    }
+
+    public synchronized boolean cancel(T key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) return false;
+
+        buckets.get((int) (timer.tick & mask)).remove(key);
+        return true;
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis} and returns the keys whose deadline passed.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        if (targetTick < currentTick) return expired;
+
+        if (targetTick - currentTick >= buckets.size()) {
+            for (Set<T> bucket : buckets) expire(bucket, targetTick, expired);
+        } else {
+            for (long tick = currentTick; tick <= targetTick; tick++) {
+                expire(buckets.get((int) (tick & mask)), targetTick, expired);
+            }
+        }
+        currentTick = targetTick + 1;
+
+        long lag = 0;
+        for (T key : expired) lag = Math.max(lag, nowMillis - timers.remove(key).deadlineMillis);
+        lastLagMillis = lag;
+
+        return expired;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    public synchronized long getLastLagMillis() {
+        return lastLagMillis;
+    }
+
+    /**
+     * How far past its deadline the oldest outstanding timer is, or 0 when nothing is overdue.
+     */
+    public synchronized long getOverdueMillis(long nowMillis) {
+        long overdue = 0;
+        for (Timer timer : timers.values()) overdue = Math.max(overdue, nowMillis - timer.deadlineMillis);
+        return overdue;
+    }
+
+    private void expire(Set<T> bucket, long targetTick, List<T> expired) {
+        Iterator<T> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            T key = iterator.next();
+            if (timers.get(key).tick <= targetTick) {
+                iterator.remove();
+                expired.add(key);
+            }
+        }
+    }
+
+    private static final class Timer {
+        private final long deadlineMillis;
+        private final long tick;
+
+        private Timer(long deadlineMillis, long tick) {
+            this.deadlineMillis = deadlineMillis;
+            this.tick = tick;
+        }
+    }
+}
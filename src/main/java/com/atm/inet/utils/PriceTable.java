@@ -0,0 +1,75 @@
+package com.atm.inet.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+
+/**
+ * Hourly rates of one type price with every rule already applied, indexed by member, weekend and hour of day.
+ * Instances are immutable, so a table can be read from any thread and replaced by swapping the reference.
+ * The peak window is [peakStartHour, peakEndHour) and wraps past midnight when the start is after the end.
+ */
+public final class PriceTable {
+
+    private static final int HOURS = 24;
+
+    private final String typePriceId;
+    private final long basePrice;
+    private final long[] rates = new long[2 * 2 * HOURS];
+
+    public PriceTable(String typePriceId, long basePrice, int peakStartHour, int peakEndHour,
+                      int peakSurchargePercent, int weekendSurchargePercent, int memberDiscountPercent) {
+        if (basePrice <= 0) throw new IllegalArgumentException("basePrice must be positive");
+        if (peakStartHour < 0 || peakStartHour >= HOURS || peakEndHour < 0 || peakEndHour >= HOURS)
+            throw new IllegalArgumentException("peak hours must be between 0 and 23");
+        if (peakSurchargePercent < 0 || weekendSurchargePercent < 0)
+            throw new IllegalArgumentException("surcharges must not be negative");
+        if (memberDiscountPercent < 0 || memberDiscountPercent > 100)
+            throw new IllegalArgumentException("memberDiscountPercent must be between 0 and 100");
+
+        this.typePriceId = typePriceId;
+        this.basePrice = basePrice;
+        for (int member = 0; member < 2; member++) {
+            for (int weekend = 0; weekend < 2; weekend++) {
+                for (int hour = 0; hour < HOURS; hour++) {
+                    long peak = isPeak(hour, peakStartHour, peakEndHour) ? peakSurchargePercent : 0;
+                    long factor = (100 + peak) * (100 + (weekend == 1 ? weekendSurchargePercent : 0))
+                            * (100 - (member == 1 ? memberDiscountPercent : 0));
+                    // rounded half up to whole rupiah
+                    rates[index(member == 1, weekend == 1, hour)] = (basePrice * factor + 500_000) / 1_000_000;
+                }
+            }
+        }
+    }
+
+    public String getTypePriceId() {
+        return typePriceId;
+    }
+
+    public long getBasePrice() {
+        return basePrice;
+    }
+
+    public long rate(LocalDateTime hourStart, boolean member) {
+        return rates[index(member, isWeekend(hourStart.getDayOfWeek()), hourStart.getHour())];
+    }
+
+    // every started hour is charged at the rate of the hour it starts in
+    public long total(LocalDateTime start, int durationHours, boolean member) {
+        long total = 0;
+        for (int i = 0; i < durationHours; i++) total += rate(start.plusHours(i), member);
+        return total;
+    }
+
+    private static boolean isPeak(int hour, int peakStartHour, int peakEndHour) {
+        if (peakStartHour <= peakEndHour) return hour >= peakStartHour && hour < peakEndHour;
+        return hour >= peakStartHour || hour < peakEndHour;
+    }
+
+    private static boolean isWeekend(DayOfWeek day) {
+        return day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+    }
+
+    private static int index(boolean member, boolean weekend, int hour) {
+        return ((member ? 2 : 0) + (weekend ? 1 : 0)) * HOURS + hour;
+    }
+}
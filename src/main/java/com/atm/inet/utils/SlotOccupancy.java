@@ -0,0 +1,116 @@
+package com.atm.inet.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bitset per computer over a rolling horizon of fixed-size slots, bit i set when slot i is booked.
+ * The horizon starts at midnight of the current day; a window query is a single intersects() per computer.
+ * Partial slots count as booked, so a booking ending at 10:05 occupies the whole 10:00 slot.
+ */
+public class SlotOccupancy {
+
+    private final int slotMinutes;
+    private final int horizonDays;
+    private final int horizonSlots;
+    private final Map<String, BitSet> occupancy = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LocalDateTime origin;
+
+    public SlotOccupancy(int slotMinutes, int horizonDays, LocalDateTime now) {
+        if (slotMinutes <= 0 || (24 * 60) % slotMinutes != 0)
+            throw new IllegalArgumentException("slotMinutes must divide a day");
+        this.slotMinutes = slotMinutes;
+        this.horizonDays = horizonDays;
+        this.horizonSlots = horizonDays * 24 * 60 / slotMinutes;
+        this.origin = now.toLocalDate().atStartOfDay();
+    }
+
+    public void mark(String computerId, LocalDateTime start, LocalDateTime end) {
+        lock.writeLock().lock();
+        try {
+            int from = Math.max(floorSlot(start), 0);
+            int to = Math.min(ceilSlot(end), horizonSlots);
+            if (from < to) occupancy.computeIfAbsent(computerId, id -> new BitSet(horizonSlots)).set(from, to);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear(String computerId, LocalDateTime start, LocalDateTime end) {
+        lock.writeLock().lock();
+        try {
+            BitSet bits = occupancy.get(computerId);
+            if (bits == null) return;
+
+            int from = Math.max(floorSlot(start), 0);
+            int to = Math.min(ceilSlot(end), horizonSlots);
+            if (from < to) bits.clear(from, to);
+            if (bits.isEmpty()) occupancy.remove(computerId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean covers(LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            return floorSlot(start) >= 0 && ceilSlot(end) <= horizonSlots;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the candidates with no booked slot in [start, end), preserving their order.
+     */
+    public List<String> free(Collection<String> computerIds, LocalDateTime start, LocalDateTime end) {
+        lock.readLock().lock();
+        try {
+            BitSet window = new BitSet(horizonSlots);
+            window.set(Math.max(floorSlot(start), 0), Math.min(ceilSlot(end), horizonSlots));
+
+            List<String> free = new ArrayList<>();
+            for (String computerId : computerIds) {
+                BitSet bits = occupancy.get(computerId);
+                if (bits == null || !bits.intersects(window)) free.add(computerId);
+            }
+            return free;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the horizon to start at today's midnight, dropping past days. Returns the number of days shifted;
+     * bookings in the days that just entered the horizon must be marked again by the caller.
+     */
+    public int roll(LocalDateTime now) {
+        LocalDateTime today = now.toLocalDate().atStartOfDay();
+        lock.writeLock().lock();
+        try {
+            int days = (int) Duration.between(origin, today).toDays();
+            if (days <= 0) return 0;
+
+            int shift = Math.min(days, horizonDays) * 24 * 60 / slotMinutes;
+            occupancy.replaceAll((id, bits) -> bits.get(shift, Math.max(bits.length(), shift)));
+            occupancy.values().removeIf(BitSet::isEmpty);
+            origin = today;
+            return days;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int floorSlot(LocalDateTime time) {
+        return (int) Math.floorDiv(Duration.between(origin, time).toSeconds(), slotMinutes * 60L);
+    }
+
+    private int ceilSlot(LocalDateTime time) {
+        return (int) -Math.floorDiv(-Duration.between(origin, time).toSeconds(), slotMinutes * 60L);
+    }
+}
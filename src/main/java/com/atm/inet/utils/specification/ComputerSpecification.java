@@ -28,15 +28,20 @@ public class ComputerSpecification {
             }
 
             if (computerSearch.getProcessor() != null) {
-                Predicate processorPredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("processor")), "%" + computerSearch.getProcessor().toLowerCase() + "%");
+                Predicate processorPredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("specification").get("processor")), "%" + computerSearch.getProcessor().toLowerCase() + "%");
                 predicateList.add(processorPredicate);
             }
 
             if (computerSearch.getVga() != null) {
-                Predicate vgaPredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("vga")), "%" + computerSearch.getVga().toLowerCase() + "%");
+                Predicate vgaPredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("specification").get("vga")), "%" + computerSearch.getVga().toLowerCase() + "%");
                 predicateList.add(vgaPredicate);
             }
 
+            if (computerSearch.getRam() != null) {
+                Predicate ramPredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("specification").get("ram")), "%" + computerSearch.getRam().toLowerCase() + "%");
+                predicateList.add(ramPredicate);
+            }
+
             if (computerSearch.getCategory() != null) {
                 Predicate typePredicate = criteriaBuilder.equal(root.get("type").get("category"), ECategory.valueOf(computerSearch.getCategory().toUpperCase()));
                 predicateList.add(typePredicate);
@@ -0,0 +1,74 @@
+package com.atm.inet.utils.specification;
+
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.model.common.OrderDetailSearch;
+import com.atm.inet.utils.KeysetCursor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.criteria.Predicate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderDetailSpecification {
+
+    public static Specification<OrderDetail> getSpecification(OrderDetailSearch orderDetailSearch) {
+        // parsed up front, a bad filter is the caller's 400 and not an error halfway through the query
+        EStatusOrder status = orderDetailSearch.getStatus() == null ? null : parseStatus(orderDetailSearch.getStatus());
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicateList = new ArrayList<>();
+
+            if (orderDetailSearch.getCustomerId() != null) {
+                Predicate customerPredicate = criteriaBuilder.equal(root.get("customer").get("id"), orderDetailSearch.getCustomerId());
+                predicateList.add(customerPredicate);
+            }
+
+            if (orderDetailSearch.getComputerId() != null) {
+                Predicate computerPredicate = criteriaBuilder.equal(root.get("computer").get("id"), orderDetailSearch.getComputerId());
+                predicateList.add(computerPredicate);
+            }
+
+            if (status != null) {
+                Predicate statusPredicate = criteriaBuilder.equal(root.get("status"), status);
+                predicateList.add(statusPredicate);
+            }
+
+            if (orderDetailSearch.getFrom() != null) {
+                Predicate fromPredicate = criteriaBuilder.greaterThanOrEqualTo(root.<LocalDateTime>get("transactionDate"), orderDetailSearch.getFrom());
+                predicateList.add(fromPredicate);
+            }
+
+            if (orderDetailSearch.getTo() != null) {
+                Predicate toPredicate = criteriaBuilder.lessThan(root.<LocalDateTime>get("transactionDate"), orderDetailSearch.getTo());
+                predicateList.add(toPredicate);
+            }
+
+            // newest first: continue strictly below the last (transaction_date, id) pair that was returned
+            if (orderDetailSearch.getCursor() != null) {
+                KeysetCursor cursor = KeysetCursor.decode(orderDetailSearch.getCursor());
+                Predicate cursorPredicate = criteriaBuilder.or(
+                        criteriaBuilder.lessThan(root.<LocalDateTime>get("transactionDate"), cursor.getTransactionDate()),
+                        criteriaBuilder.and(
+                                criteriaBuilder.equal(root.get("transactionDate"), cursor.getTransactionDate()),
+                                criteriaBuilder.lessThan(root.<String>get("id"), cursor.getId())
+                        )
+                );
+                predicateList.add(cursorPredicate);
+            }
+
+            Predicate[] predicates = predicateList.toArray(new Predicate[0]);
+            return criteriaBuilder.and(predicates);
+        };
+    }
+
+    private static EStatusOrder parseStatus(String status) {
+        try {
+            return EStatusOrder.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown order status " + status);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.computer.*;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.model.common.ComputerSearch;
+import com.atm.inet.utils.specification.ComputerSpecification;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ComputerRepositoryTest {
+
+    @Autowired
+    private ComputerRepository computerRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Availability candidates are the ids of bookable computers only")
+    void testFindBookableIds_skipsDeleted() {
+        List<Computer> computers = persistComputers(3);
+        computers.get(2).setStatus(EStatus.DELETED);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<String> ids = computerRepository.findBookableIds(ComputerSpecification.getSpecification(ComputerSearch.builder().build()));
+
+        assertEquals(Set.of(computers.get(0).getId(), computers.get(1).getId()), Set.copyOf(ids));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Available computers load with everything their response reads in two statements")
+    void testFindAllForResponseByIdIn_constantStatementCount() {
+        List<String> ids = persistComputers(5).stream().map(Computer::getId).toList();
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<Computer> computers = computerRepository.findAllForResponseByIdIn(ids);
+        computers.forEach(computer -> {
+            assertEquals("16GB", computer.getSpecification().getRam());
+            assertEquals(2, computer.getType().getTypePrices().size());
+            assertEquals("vip.png", computer.getType().getComputerImage().getName());
+        });
+
+        assertEquals(5, computers.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    private List<Computer> persistComputers(int count) {
+        ComputerImage image = ComputerImage.builder().name("vip.png").contentType("image/png").path("/images/vip.png").size(1L).build();
+        Type type = Type.builder().category(ECategory.VIP).typePrices(new ArrayList<>()).computerImage(image).build();
+        image.setType(type);
+        type = testEntityManager.persist(type);
+        testEntityManager.persist(TypePrice.builder().type(type).price(10_000L).isActive(true).build());
+        testEntityManager.persist(TypePrice.builder().type(type).price(8_000L).isActive(false).build());
+
+        List<Computer> computers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            computers.add(testEntityManager.persist(Computer.builder()
+                    .name("PC " + i)
+                    .code("AVL-" + i)
+                    .status(EStatus.FREE)
+                    .specification(ComputerSpec.builder().processor("i5").ram("16GB").build())
+                    .type(type)
+                    .build()));
+        }
+        return computers;
+    }
+}
@@ -0,0 +1,211 @@
+package com.atm.inet.repository;
+
+import com.atm.inet.entity.Customer;
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.entity.Role;
+import com.atm.inet.entity.UserCredential;
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.computer.ComputerSpec;
+import com.atm.inet.entity.computer.Type;
+import com.atm.inet.entity.computer.TypePrice;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.ERole;
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.model.common.OrderDetailSearch;
+import com.atm.inet.model.projection.BookingContext;
+import com.atm.inet.model.response.OrderDetailResponse;
+import com.atm.inet.utils.specification.OrderDetailSpecification;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class OrderDetailRepositoryTest {
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Order list page is one statement regardless of size")
+    void testFindSlice_constantStatementCount() {
+        Customer customer = persistCustomer("one@mail.com");
+        persistOrders(customer, "ONE", 1);
+        Customer otherCustomer = persistCustomer("many@mail.com");
+        persistOrders(otherCustomer, "MANY", 25);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        long singleRowStatements = countStatements(customer.getId(), 1);
+        long manyRowStatements = countStatements(otherCustomer.getId(), 25);
+
+        assertEquals(1, singleRowStatements);
+        assertEquals(singleRowStatements, manyRowStatements);
+    }
+
+    @Test
+    @DisplayName("Order list projection fills every response field")
+    void testFindSlice_projectsResponse() {
+        Customer customer = persistCustomer("fields@mail.com");
+        persistOrders(customer, "PC", 1);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        OrderDetailSearch search = OrderDetailSearch.builder().customerId(customer.getId()).build();
+        OrderDetailResponse response = orderDetailRepository.findSlice(OrderDetailSpecification.getSpecification(search), 10).get(0);
+
+        assertEquals("PC-0", response.getComputerCode());
+        assertEquals(ECategory.VIP.name(), response.getType());
+        assertEquals(30_000L, response.getPrice());
+        assertEquals(EStatusOrder.PENDING.name(), response.getStatus());
+        assertEquals("fields@mail.com", response.getCustomerEmail());
+        assertNotNull(response.getTransactionDate());
+    }
+
+    @Test
+    @DisplayName("Booking context loads in one statement for the calling customer only")
+    void testFindBookingContext_singleStatement() {
+        Role role = testEntityManager.persist(Role.builder().role(ERole.ROLE_CUSTOMER).build());
+        UserCredential credential = testEntityManager.persist(UserCredential.builder()
+                .email("context@mail.com")
+                .password("secret")
+                .role(role)
+                .isActive(true)
+                .build());
+        Customer customer = testEntityManager.persist(Customer.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email("context@mail.com")
+                .phoneNumber("context@mail.com")
+                .isMember(false)
+                .isDeleted(false)
+                .userCredential(credential)
+                .build());
+        Computer computer = persistOrders(customer, "CTX", 1).get(0);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        statistics.clear();
+
+        Optional<BookingContext> context = orderDetailRepository.findBookingContext(customer.getId(), computer.getId(), "context@mail.com");
+
+        assertTrue(context.isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(10_000L, context.get().getTypePrice().getPrice());
+        assertEquals("CTX-0", context.get().getComputer().getCode());
+        assertTrue(testEntityManager.getEntityManager().contains(context.get().getCustomer()));
+        assertTrue(orderDetailRepository.findBookingContext(customer.getId(), computer.getId(), "other@mail.com").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Conditional status update moves an order only once")
+    void testCompareAndSetStatus_onlyFirstCallerWins() {
+        Customer customer = persistCustomer("settle@mail.com");
+        persistOrders(customer, "SET", 1);
+        testEntityManager.flush();
+        testEntityManager.clear();
+        String orderId = orderDetailRepository.findAllByStatus(EStatusOrder.PENDING).get(0).getId();
+
+        assertEquals(1, orderDetailRepository.compareAndSetStatus(orderId, EStatusOrder.PENDING, EStatusOrder.SUCCESS));
+        assertEquals(0, orderDetailRepository.compareAndSetStatus(orderId, EStatusOrder.PENDING, EStatusOrder.SUCCESS));
+        // a late expire finds the order paid and leaves it alone
+        assertEquals(0, orderDetailRepository.compareAndSetStatus(orderId, EStatusOrder.PENDING, EStatusOrder.FAILED));
+        testEntityManager.clear();
+        assertEquals(EStatusOrder.SUCCESS, orderDetailRepository.findById(orderId).orElseThrow().getStatus());
+    }
+
+    @Test
+    @DisplayName("Unknown status filter is a bad request")
+    void testGetSpecification_unknownStatus() {
+        OrderDetailSearch search = OrderDetailSearch.builder().status("paid").build();
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> OrderDetailSpecification.getSpecification(search));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatus());
+    }
+
+    private long countStatements(String customerId, int expectedRows) {
+        statistics.clear();
+
+        OrderDetailSearch search = OrderDetailSearch.builder().customerId(customerId).build();
+        List<OrderDetailResponse> responses = orderDetailRepository.findSlice(OrderDetailSpecification.getSpecification(search), 50);
+
+        assertEquals(expectedRows, responses.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Customer persistCustomer(String email) {
+        return testEntityManager.persist(Customer.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email(email)
+                .phoneNumber(email)
+                .isMember(false)
+                .isDeleted(false)
+                .build());
+    }
+
+    private List<Computer> persistOrders(Customer customer, String codePrefix, int count) {
+        Type type = testEntityManager.persist(Type.builder()
+                .category(ECategory.VIP)
+                .typePrices(new ArrayList<>())
+                .build());
+        TypePrice typePrice = testEntityManager.persist(TypePrice.builder()
+                .type(type)
+                .price(10_000L)
+                .isActive(true)
+                .build());
+
+        List<Computer> computers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ComputerSpec spec = ComputerSpec.builder().processor("i5").ram("16GB").build();
+            Computer computer = testEntityManager.persist(Computer.builder()
+                    .name("PC " + i)
+                    .code(codePrefix + "-" + i)
+                    .status(EStatus.FREE)
+                    .specification(spec)
+                    .type(type)
+                    .build());
+
+            LocalDateTime bookingDate = LocalDateTime.now().plusDays(1).plusHours(i);
+            testEntityManager.persist(OrderDetail.builder()
+                    .customer(customer)
+                    .computer(computer)
+                    .typePrice(typePrice)
+                    .duration(3)
+                    .status(EStatusOrder.PENDING)
+                    .bookingDate(bookingDate)
+                    .endBookingDate(bookingDate.plusHours(3))
+                    .transactionDate(LocalDateTime.now().minusMinutes(i))
+                    .build());
+            computers.add(computer);
+        }
+        return computers;
+    }
+}
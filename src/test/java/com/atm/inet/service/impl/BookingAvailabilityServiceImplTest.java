@@ -0,0 +1,80 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.BookingAvailabilityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityServiceImplTest {
+
+    @Mock
+    private OrderDetailRepository orderDetailRepository;
+
+    private BookingAvailabilityService bookingAvailabilityService;
+
+    LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        bookingAvailabilityService = new BookingAvailabilityServiceImpl(orderDetailRepository);
+        start = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Test
+    @DisplayName("Reserve overlapping window on the same computer")
+    void testReserve_overlappingWindow() {
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-1", start, start.plusHours(2)));
+
+        assertFalse(bookingAvailabilityService.reserve("pc-1", "order-2", start.plusHours(1), start.plusHours(3)));
+        assertFalse(bookingAvailabilityService.reserve("pc-1", "order-3", start.minusHours(1), start.plusMinutes(1)));
+        assertFalse(bookingAvailabilityService.isAvailable("pc-1", start.plusMinutes(30), start.plusMinutes(45)));
+    }
+
+    @Test
+    @DisplayName("Reserve adjacent window and other computer")
+    void testReserve_adjacentWindow() {
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-1", start, start.plusHours(2)));
+
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-2", start.plusHours(2), start.plusHours(3)));
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-3", start.minusHours(1), start));
+        assertTrue(bookingAvailabilityService.reserve("pc-2", "order-4", start, start.plusHours(2)));
+    }
+
+    @Test
+    @DisplayName("Empty window never replaces a booking with the same start")
+    void testReserve_emptyWindowSameStart() {
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-1", start, start.plusHours(2)));
+
+        assertFalse(bookingAvailabilityService.reserve("pc-1", "order-2", start, start));
+        assertFalse(bookingAvailabilityService.isAvailable("pc-1", start, start.plusHours(1)));
+    }
+
+    @Test
+    @DisplayName("Same order reserving its own window again succeeds")
+    void testReserve_sameOrderAgain() {
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-1", start, start.plusHours(2)));
+
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-1", start, start.plusHours(2)));
+        assertFalse(bookingAvailabilityService.reserve("pc-1", "order-2", start, start.plusHours(2)));
+    }
+
+    @Test
+    @DisplayName("Released order frees its window")
+    void testRelease_freesWindow() {
+        bookingAvailabilityService.reserve("pc-1", "order-1", start, start.plusHours(2));
+
+        bookingAvailabilityService.release("order-1");
+
+        assertTrue(bookingAvailabilityService.isAvailable("pc-1", start, start.plusHours(2)));
+        assertTrue(bookingAvailabilityService.reserve("pc-1", "order-2", start.plusHours(1), start.plusHours(3)));
+    }
+}
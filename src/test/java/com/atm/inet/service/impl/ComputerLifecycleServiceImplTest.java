@@ -0,0 +1,94 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.event.ComputerFreedEvent;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.ComputerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ComputerLifecycleServiceImplTest {
+
+    @Mock
+    private OrderDetailRepository orderDetailRepository;
+
+    @Mock
+    private ComputerService computerService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private ComputerLifecycleServiceImpl lifecycleService;
+
+    @BeforeEach
+    void setUp() {
+        lifecycleService = new ComputerLifecycleServiceImpl(orderDetailRepository, computerService, eventPublisher);
+        ReflectionTestUtils.setField(lifecycleService, "batchSize", 500);
+        // rejects a disallowed transition the way ComputerServiceImpl does, even for an empty batch
+        when(computerService.transitionStatusesReturningIds(anyList(), anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<EStatus> from = invocation.getArgument(1);
+            EStatus to = invocation.getArgument(2);
+            from.forEach(status -> assertTrue(status.canTransitionTo(to), status + " -> " + to));
+            return invocation.getArgument(0);
+        });
+    }
+
+    @Test
+    @DisplayName("Booking ending as the next one starts keeps the computer in use")
+    void testTick_backToBackBookingsInOneTick() {
+        LocalDateTime now = LocalDateTime.now();
+        lifecycleService.schedule("pc-1", now.minusHours(2), now.minusSeconds(1));
+        lifecycleService.schedule("pc-1", now.minusSeconds(1), now.plusHours(1));
+
+        lifecycleService.tick();
+
+        verify(computerService, never()).transitionStatusesReturningIds(anyList(), anyCollection(), eq(EStatus.FREE));
+        verify(computerService, never()).transitionStatusesReturningIds(anyList(), anyCollection(), eq(EStatus.ORDERED));
+        verify(computerService).transitionStatusesReturningIds(List.of("pc-1"), List.of(EStatus.FREE, EStatus.ORDERED), EStatus.USED);
+        verify(eventPublisher, never()).publishEvent(any(ComputerFreedEvent.class));
+        assertEquals(1, lifecycleService.getPendingEvents());
+    }
+
+    @Test
+    @DisplayName("Booking that began and ended within one tick frees the computer from ORDERED")
+    void testTick_wholeBookingInOneTick() {
+        LocalDateTime now = LocalDateTime.now();
+        lifecycleService.schedule("pc-1", now.minusHours(2), now.minusSeconds(1));
+
+        lifecycleService.tick();
+
+        verify(computerService).transitionStatusesReturningIds(List.of("pc-1"), List.of(EStatus.USED, EStatus.ORDERED), EStatus.FREE);
+        verify(computerService, never()).transitionStatusesReturningIds(anyList(), anyCollection(), eq(EStatus.USED));
+        verify(eventPublisher).publishEvent(any(ComputerFreedEvent.class));
+        assertEquals(0, lifecycleService.getPendingEvents());
+    }
+
+    @Test
+    @DisplayName("Booking that began and ended within one tick with another ahead goes back to ORDERED")
+    void testTick_wholeBookingInOneTickWithNextAhead() {
+        LocalDateTime now = LocalDateTime.now();
+        lifecycleService.schedule("pc-1", now.minusHours(2), now.minusSeconds(1));
+        lifecycleService.schedule("pc-1", now.plusHours(1), now.plusHours(2));
+
+        lifecycleService.tick();
+
+        verify(computerService).transitionStatusesReturningIds(List.of("pc-1"), List.of(EStatus.USED), EStatus.ORDERED);
+        verify(eventPublisher, never()).publishEvent(any(ComputerFreedEvent.class));
+        assertEquals(2, lifecycleService.getPendingEvents());
+    }
+}
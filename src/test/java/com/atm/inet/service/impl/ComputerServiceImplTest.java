@@ -3,12 +3,14 @@ package com.atm.inet.service.impl;
 import com.atm.inet.entity.computer.*;
 import com.atm.inet.entity.constant.ECategory;
 import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.model.common.ComputerSearch;
 import com.atm.inet.model.request.ComputerRequest;
 import com.atm.inet.model.request.ComputerSpecRequest;
 import com.atm.inet.model.request.ComputerUpdateRequest;
 import com.atm.inet.model.response.ComputerResponse;
 import com.atm.inet.model.response.NewComputerResponse;
 import com.atm.inet.repository.ComputerRepository;
+import com.atm.inet.service.BookingAvailabilityService;
 import com.atm.inet.service.ComputerImageService;
 import com.atm.inet.service.ComputerService;
 import com.atm.inet.service.ComputerSpecService;
@@ -25,6 +27,7 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -49,6 +52,9 @@ class ComputerServiceImplTest {
     @Mock
     private TypeService typeService;
 
+    @Mock
+    private BookingAvailabilityService bookingAvailabilityService;
+
     @Mock
     private ComputerService computerService;
 
@@ -56,7 +62,7 @@ class ComputerServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        computerService = new ComputerServiceImpl(computerRepository, computerImageService, computerSpecService, typeService);
+        computerService = new ComputerServiceImpl(computerRepository, computerImageService, computerSpecService, typeService, bookingAvailabilityService);
         computer = Computer.builder()
                 .id("1")
                 .name("computer")
@@ -193,4 +199,62 @@ class ComputerServiceImplTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Test status transition loses the race")
+    void testTransitionStatus_concurrentChange() {
+
+        when(computerRepository.compareAndSetStatus("1", EStatus.FREE, EStatus.ORDERED)).thenReturn(0);
+
+        assertFalse(computerService.transitionStatus("1", EStatus.FREE, EStatus.ORDERED));
+    }
+
+    @Test
+    @DisplayName("Test status transition outside the state machine")
+    void testTransitionStatus_invalidTransition() {
+
+        assertThrows(ResponseStatusException.class, () -> computerService.transitionStatus("1", EStatus.DELETED, EStatus.FREE));
+    }
+
+    @Test
+    @DisplayName("Test booking claim with stale version")
+    void testClaimForBooking_staleVersion() {
+
+        when(computerRepository.claimForBooking("1", 3L)).thenReturn(0);
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class, () -> computerService.claimForBooking("1", 3L));
+        assertEquals(409, exception.getStatus().value());
+    }
+
+    @Test
+    @DisplayName("Test batched status transition reports the computers it moved")
+    void testTransitionStatusesReturningIds() {
+
+        when(computerRepository.compareAndSetStatusesReturningIds(List.of("1", "2"), List.of("USED"), "FREE")).thenReturn(List.of("2"));
+
+        assertEquals(List.of("2"), computerService.transitionStatusesReturningIds(List.of("1", "2"), List.of(EStatus.USED), EStatus.FREE));
+    }
+
+    @Test
+    @DisplayName("Test availability search loads only the computers the slot index returns")
+    void testGetAvailable_loadsAvailableOnly() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        ComputerImage image = ComputerImage.builder().id("img").name("vip.png").build();
+        Computer available = Computer.builder()
+                .id("2")
+                .name("computer")
+                .code("TEST02")
+                .status(EStatus.FREE)
+                .specification(new ComputerSpec())
+                .type(Type.builder().id("t").category(ECategory.VIP).typePrices(List.of()).computerImage(image).build())
+                .build();
+
+        when(computerRepository.findBookableIds(any())).thenReturn(List.of("1", "2"));
+        when(bookingAvailabilityService.findAvailable(List.of("1", "2"), from, from.plusHours(2))).thenReturn(List.of("2"));
+        when(computerRepository.findAllForResponseByIdIn(List.of("2"))).thenReturn(List.of(available));
+
+        List<ComputerResponse> responses = computerService.getAvailable(new ComputerSearch(), from, from.plusHours(2));
+
+        assertEquals(1, responses.size());
+        assertEquals("TEST02", responses.get(0).getCode());
+    }
+}
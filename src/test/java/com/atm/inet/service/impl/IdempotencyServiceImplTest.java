@@ -0,0 +1,88 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.IdempotencyRecord;
+import com.atm.inet.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "ttlMinutes", 1440L);
+        ReflectionTestUtils.setField(idempotencyService, "processingLeaseSeconds", 60L);
+        ReflectionTestUtils.setField(idempotencyService, "cacheSize", 10);
+        ReflectionTestUtils.setField(idempotencyService, "cleanupIntervalMinutes", 10L);
+        idempotencyService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyService.stop();
+    }
+
+    @Test
+    @DisplayName("Claim of a request that died is taken over after the lease")
+    void testExecute_takesOverStaleClaim() {
+        when(idempotencyRecordRepository.insertIfAbsent(eq("alice:key-1"), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.takeOver(eq("alice:key-1"), anyString(), any(), any(), any())).thenReturn(1);
+
+        String response = idempotencyService.execute("alice", "key-1", Map.of("computerId", "pc-1"), String.class, () -> "booked");
+
+        assertEquals("booked", response);
+        verify(idempotencyRecordRepository).complete("alice:key-1", "\"booked\"");
+    }
+
+    @Test
+    @DisplayName("Claim still inside its lease answers 409")
+    void testExecute_claimStillRunning() {
+        when(idempotencyRecordRepository.insertIfAbsent(eq("alice:key-1"), anyString(), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.takeOver(eq("alice:key-1"), anyString(), any(), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById("alice:key-1")).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .id("alice:key-1")
+                .fingerprint("fingerprint")
+                .createdAt(LocalDateTime.now())
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .build()));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () ->
+                idempotencyService.execute("alice", "key-1", Map.of("computerId", "pc-1"), String.class, () -> "booked"));
+        assertEquals(HttpStatus.CONFLICT, e.getStatus());
+    }
+
+    @Test
+    @DisplayName("Response is returned even when it can't be stored")
+    void testExecute_completeFails() {
+        when(idempotencyRecordRepository.insertIfAbsent(eq("alice:key-1"), anyString(), any(), any())).thenReturn(1);
+        when(idempotencyRecordRepository.complete(anyString(), anyString())).thenThrow(new IllegalStateException("connection reset"));
+
+        String response = idempotencyService.execute("alice", "key-1", Map.of("computerId", "pc-1"), String.class, () -> "booked");
+
+        assertEquals("booked", response);
+        verify(idempotencyRecordRepository, never()).deleteById(anyString());
+    }
+}
@@ -0,0 +1,140 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.model.projection.ReconcileCandidateView;
+import com.atm.inet.model.response.ReconciliationStatsResponse;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.OrderDetailService;
+import com.atm.inet.service.payment.MidtransService;
+import com.atm.inet.service.payment.PaymentGatewayUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentReconciliationServiceImplTest {
+
+    @Mock
+    private OrderDetailRepository orderDetailRepository;
+
+    @Mock
+    private OrderDetailService orderDetailService;
+
+    @Mock
+    private MidtransService midtransService;
+
+    private PaymentReconciliationServiceImpl reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        reconciliationService = new PaymentReconciliationServiceImpl(orderDetailRepository, orderDetailService, midtransService);
+        ReflectionTestUtils.setField(reconciliationService, "pageSize", 3);
+        ReflectionTestUtils.setField(reconciliationService, "concurrency", 2);
+        ReflectionTestUtils.setField(reconciliationService, "requestsPerSecond", 100);
+        ReflectionTestUtils.setField(reconciliationService, "graceMinutes", 10L);
+        ReflectionTestUtils.setField(reconciliationService, "failedLookbackHours", 24L);
+        ReflectionTestUtils.setField(reconciliationService, "intervalMinutes", 0L);
+        reconciliationService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliationService.stop();
+    }
+
+    @Test
+    @DisplayName("Pages through candidates and applies only real changes in one batch per page")
+    void testRunOnce_appliesChanges() {
+        when(orderDetailRepository.findReconcileCandidates(eq(""), any(), any(), any(), any(), any())).thenReturn(List.of(
+                candidate("a", null, EStatusOrder.PENDING),
+                candidate("b", "group-1", EStatusOrder.PENDING),
+                candidate("c", "group-1", EStatusOrder.PENDING)));
+        when(orderDetailRepository.findReconcileCandidates(eq("c"), any(), any(), any(), any(), any())).thenReturn(List.of(
+                candidate("d", null, EStatusOrder.FAILED),
+                candidate("e", null, EStatusOrder.FAILED)));
+        when(orderDetailRepository.findReconcileCandidates(eq("e"), any(), any(), any(), any(), any())).thenReturn(List.of());
+        when(midtransService.getTransactionById("a")).thenReturn(status("settlement"));
+        when(midtransService.getTransactionById("group-1")).thenReturn(status("pending"));
+        when(midtransService.getTransactionById("d")).thenReturn(status("expire"));
+        when(midtransService.getTransactionById("e")).thenReturn(status("settlement"));
+
+        reconciliationService.runOnce();
+
+        verify(midtransService, times(1)).getTransactionById("group-1");
+        verify(orderDetailService).applyStatuses(Map.of("a", "settlement"));
+        verify(orderDetailService).applyStatuses(Map.of("e", "settlement"));
+        ReconciliationStatsResponse stats = reconciliationService.getStats();
+        assertEquals(5L, stats.getScanned());
+        assertEquals(4L, stats.getChecked());
+        assertEquals(2L, stats.getUpdated());
+        assertEquals(2L, stats.getUnchanged());
+        assertFalse(stats.getRunning());
+    }
+
+    @Test
+    @DisplayName("Failed batch falls back to applying orders one by one")
+    void testRunOnce_batchFallback() {
+        when(orderDetailRepository.findReconcileCandidates(eq(""), any(), any(), any(), any(), any())).thenReturn(List.of(
+                candidate("a", null, EStatusOrder.PENDING),
+                candidate("b", null, EStatusOrder.PENDING)));
+        when(orderDetailRepository.findReconcileCandidates(eq("b"), any(), any(), any(), any(), any())).thenReturn(List.of());
+        when(midtransService.getTransactionById(anyString())).thenReturn(status("expire"));
+        doThrow(new IllegalStateException("deadlock")).when(orderDetailService).applyStatuses(anyMap());
+        lenient().doThrow(new IllegalStateException("deadlock")).when(orderDetailService).applyStatus("b", "expire");
+
+        reconciliationService.runOnce();
+
+        verify(orderDetailService).applyStatus("a", "expire");
+        assertEquals(1L, reconciliationService.getStats().getUpdated());
+        assertEquals(1L, reconciliationService.getStats().getErrors());
+    }
+
+    @Test
+    @DisplayName("Run stops when the payment gateway is unavailable")
+    void testRunOnce_stopsWhenGatewayDown() {
+        when(orderDetailRepository.findReconcileCandidates(eq(""), any(), any(), any(), any(), any())).thenReturn(List.of(
+                candidate("a", null, EStatusOrder.PENDING)));
+        when(midtransService.getTransactionById("a")).thenThrow(new PaymentGatewayUnavailableException("open"));
+
+        reconciliationService.runOnce();
+
+        verify(orderDetailRepository, times(1)).findReconcileCandidates(any(), any(), any(), any(), any(), any());
+        verify(orderDetailService, never()).applyStatuses(anyMap());
+        assertEquals(1L, reconciliationService.getStats().getErrors());
+    }
+
+    private static String status(String transactionStatus) {
+        return "{\"status_code\":\"200\",\"transaction_status\":\"" + transactionStatus + "\"}";
+    }
+
+    private static ReconcileCandidateView candidate(String id, String groupId, EStatusOrder status) {
+        return new ReconcileCandidateView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getGroupId() {
+                return groupId;
+            }
+
+            @Override
+            public EStatusOrder getStatus() {
+                return status;
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.Customer;
+import com.atm.inet.entity.OrderDetail;
+import com.atm.inet.entity.RevenueRollup;
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.computer.ComputerSpec;
+import com.atm.inet.entity.computer.Type;
+import com.atm.inet.entity.computer.TypePrice;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.entity.constant.EStatusOrder;
+import com.atm.inet.repository.*;
+import com.atm.inet.service.OrderDetailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// runs against the configured PostgreSQL database, the rebuild relies on LOCK TABLE and ON CONFLICT
+@SpringBootTest
+class RevenueRollupServiceImplTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private RevenueRollupRepository revenueRollupRepository;
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TypeRepository typeRepository;
+
+    @Autowired
+    private TypePriceRepository typePriceRepository;
+
+    @Autowired
+    private ComputerRepository computerRepository;
+
+    private Customer customer;
+    private Type type;
+    private TypePrice typePrice;
+    private Computer computer;
+    private OrderDetail orderDetail;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            assumeTrue("PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        customer = customerRepository.save(Customer.builder()
+                .firstName("Rollup")
+                .lastName("Test")
+                .email("rollup-" + suffix + "@mail.com")
+                .phoneNumber("rollup-" + suffix)
+                .isMember(false)
+                .isDeleted(false)
+                .build());
+        type = typeRepository.save(Type.builder().category(ECategory.VIP).typePrices(new ArrayList<>()).build());
+        typePrice = typePriceRepository.save(TypePrice.builder().type(type).price(10_000L).isActive(true).build());
+        computer = computerRepository.save(Computer.builder()
+                .name("Rollup PC")
+                .code("ROLLUP-" + suffix)
+                .status(EStatus.FREE)
+                .specification(ComputerSpec.builder().processor("i5").ram("16GB").build())
+                .type(type)
+                .build());
+        LocalDateTime bookingDate = LocalDateTime.now().plusDays(1);
+        orderDetail = orderDetailRepository.save(OrderDetail.builder()
+                .customer(customer)
+                .computer(computer)
+                .typePrice(typePrice)
+                .duration(3)
+                .status(EStatusOrder.PENDING)
+                .bookingDate(bookingDate)
+                .endBookingDate(bookingDate.plusHours(3))
+                .transactionDate(LocalDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (orderDetail == null) return;
+        revenueRollupRepository.deleteAll(rollupsOf(computer.getId()));
+        orderDetailRepository.deleteById(orderDetail.getId());
+        computerRepository.deleteById(computer.getId());
+        typePriceRepository.deleteById(typePrice.getId());
+        typeRepository.deleteById(type.getId());
+        customerRepository.deleteById(customer.getId());
+    }
+
+    @Test
+    @DisplayName("Order settling during a rebuild is counted exactly once")
+    void testRebuild_concurrentSettle() throws Exception {
+        CompletableFuture<Void> settle = new CompletableFuture<>();
+
+        // the same steps as startRebuild, with the order settling while the rebuild holds the table
+        transactionTemplate.executeWithoutResult(status -> {
+            revenueRollupRepository.lockForRebuild();
+            revenueRollupRepository.deleteAllBuckets();
+
+            CompletableFuture.runAsync(() -> orderDetailService.applyStatus(orderDetail.getId(), "settlement"))
+                    .whenComplete((result, error) -> {
+                        if (error != null) settle.completeExceptionally(error);
+                        else settle.complete(null);
+                    });
+            // the settlement's increment waits for the rebuild to commit
+            assertThrows(TimeoutException.class, () -> settle.get(500, TimeUnit.MILLISECONDS));
+
+            revenueRollupRepository.backfillFromOrders();
+        });
+        settle.get(10, TimeUnit.SECONDS);
+
+        List<RevenueRollup> rollups = rollupsOf(computer.getId());
+        assertEquals(1, rollups.size());
+        assertEquals(1L, rollups.get(0).getOrderCount());
+        assertEquals(30_000L, rollups.get(0).getRevenue());
+        assertEquals(3L, rollups.get(0).getBookedHours());
+        assertEquals(EStatusOrder.SUCCESS, orderDetailRepository.findById(orderDetail.getId()).orElseThrow().getStatus());
+    }
+
+    private List<RevenueRollup> rollupsOf(String computerId) {
+        return revenueRollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getComputerId().equals(computerId))
+                .toList();
+    }
+}
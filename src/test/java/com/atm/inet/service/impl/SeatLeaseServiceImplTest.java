@@ -0,0 +1,74 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.event.OrderExpiredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatLeaseServiceImplTest {
+
+    private SeatLeaseServiceImpl seatLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        seatLeaseService = new SeatLeaseServiceImpl(2, 4);
+    }
+
+    @Test
+    @DisplayName("Competing checkout is rejected while the lease is held")
+    void testAcquire_heldByAnotherCustomer() {
+        assertTrue(seatLeaseService.acquire("pc-1", "alice"));
+
+        assertFalse(seatLeaseService.acquire("pc-1", "bob"));
+        assertTrue(seatLeaseService.acquire("pc-1", "alice"));
+        assertTrue(seatLeaseService.acquire("pc-2", "bob"));
+    }
+
+    @Test
+    @DisplayName("Lease bound to an order is released when the order settles")
+    void testReleaseOrder_freesComputer() {
+        seatLeaseService.acquire("pc-1", "alice");
+        seatLeaseService.bindOrder("pc-1", "alice", "order-1");
+
+        seatLeaseService.releaseOrder("order-1");
+
+        assertTrue(seatLeaseService.acquire("pc-1", "bob"));
+    }
+
+    @Test
+    @DisplayName("Expired orders release their leases")
+    void testOnOrderExpired_freesComputer() {
+        seatLeaseService.acquire("pc-1", "alice");
+        seatLeaseService.bindOrder("pc-1", "alice", "order-1");
+
+        seatLeaseService.onOrderExpired(new OrderExpiredEvent(List.of("order-1")));
+
+        assertTrue(seatLeaseService.acquire("pc-1", "bob"));
+    }
+
+    @Test
+    @DisplayName("Only the holder can release a lease")
+    void testRelease_otherHolderIgnored() {
+        seatLeaseService.acquire("pc-1", "alice");
+
+        seatLeaseService.release("pc-1", "bob");
+
+        assertFalse(seatLeaseService.acquire("pc-1", "bob"));
+    }
+
+    @Test
+    @DisplayName("Unbound release leaves a lease that already has an order")
+    void testReleaseUnbound_keepsOrderedLease() {
+        seatLeaseService.acquire("pc-1", "alice");
+        seatLeaseService.acquire("pc-2", "alice");
+        seatLeaseService.bindOrder("pc-2", "alice", "order-2");
+
+        assertTrue(seatLeaseService.releaseUnbound("pc-1", "alice"));
+        assertFalse(seatLeaseService.releaseUnbound("pc-2", "alice"));
+        assertFalse(seatLeaseService.acquire("pc-2", "bob"));
+    }
+}
@@ -37,7 +37,12 @@ class TypePriceServiceImplTest {
     @BeforeEach
     void setUp() {
         typePriceService = new TypePriceServiceImpl(typePriceRepository);
-        typePrice = new TypePrice("1", new Type(), 100L, true);
+        typePrice = TypePrice.builder()
+                .id("1")
+                .type(new Type())
+                .price(100L)
+                .isActive(true)
+                .build();
     }
 
     @Test
@@ -4,14 +4,17 @@ import com.atm.inet.entity.computer.ComputerImage;
 import com.atm.inet.entity.computer.Type;
 import com.atm.inet.entity.computer.TypePrice;
 import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.model.request.TypeRequest;
 import com.atm.inet.model.response.TypeResponse;
 import com.atm.inet.repository.TypeRepository;
+import com.atm.inet.service.PricingService;
 import com.atm.inet.service.TypeService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -19,11 +22,13 @@ import org.springframework.core.io.Resource;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -37,6 +42,9 @@ class TypeServiceImplTest {
     @Mock
     private ComputerImageServiceImpl computerService;
 
+    @Mock
+    private PricingService pricingService;
+
     @Mock
     private TypeService typeService;
 
@@ -44,7 +52,7 @@ class TypeServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        typeService = new TypeServiceImpl(typeRepository, computerService);
+        typeService = new TypeServiceImpl(typeRepository, computerService, pricingService);
         type = new Type("1", ECategory.VIP, List.of(TypePrice.builder().price(2000L).build()), new ComputerImage());
     }
 
@@ -98,6 +106,24 @@ class TypeServiceImplTest {
 
     }
 
+    @Test
+    @DisplayName("Update keeps omitted pricing rules and publishes the new price")
+    void testUpdate_publishesNewPrice() {
+        TypePrice current = TypePrice.builder().price(2000L).isActive(true).peakStartHour(18).peakEndHour(23).peakSurchargePercent(20).build();
+        Type type = new Type("1", ECategory.VIP, new ArrayList<>(List.of(current)), ComputerImage.builder().id("img").build());
+        current.setType(type);
+        when(typeRepository.findById("1")).thenReturn(Optional.of(type));
+
+        typeService.update(TypeRequest.builder().id("1").price(3000L).memberDiscountPercent(10).build());
+
+        ArgumentCaptor<TypePrice> published = ArgumentCaptor.forClass(TypePrice.class);
+        verify(pricingService).publish(published.capture());
+        assertEquals(3000L, published.getValue().getPrice());
+        assertEquals(18, published.getValue().getPeakStartHour());
+        assertEquals(10, published.getValue().getMemberDiscountPercent());
+        assertFalse(current.getIsActive());
+    }
+
     @Test
     @DisplayName("get or save type")
     void testGetOrSaveType() {
@@ -0,0 +1,119 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.entity.computer.Computer;
+import com.atm.inet.entity.computer.Type;
+import com.atm.inet.entity.constant.ECategory;
+import com.atm.inet.entity.constant.EStatus;
+import com.atm.inet.repository.ComputerRepository;
+import com.atm.inet.repository.OrderDetailRepository;
+import com.atm.inet.service.BookingAvailabilityService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceImplTest {
+
+    @Mock
+    private ComputerRepository computerRepository;
+
+    @Mock
+    private OrderDetailRepository orderDetailRepository;
+
+    @Mock
+    private BookingAvailabilityService bookingAvailabilityService;
+
+    private SeatLeaseServiceImpl seatLeaseService;
+
+    private WaitlistServiceImpl waitlistService;
+
+    @BeforeEach
+    void setUp() {
+        seatLeaseService = new SeatLeaseServiceImpl(2, 4);
+        waitlistService = new WaitlistServiceImpl(computerRepository, orderDetailRepository, bookingAvailabilityService,
+                seatLeaseService, 60, 30, 2);
+        waitlistService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlistService.stop();
+    }
+
+    @Test
+    @DisplayName("Freed computer goes to the first customer in line")
+    void testDispatch_firstInLine() {
+        Computer computer = computer("pc-1", ECategory.VIP, EStatus.FREE);
+        when(computerRepository.findAllWithTypeByIdIn(List.of("pc-1"))).thenReturn(List.of(computer));
+        when(bookingAvailabilityService.isAvailable(eq("pc-1"), any(), any())).thenReturn(true);
+        waitlistService.join(ECategory.VIP, "alice");
+        waitlistService.join(ECategory.VIP, "bob");
+
+        waitlistService.dispatch(List.of("pc-1"));
+
+        assertFalse(seatLeaseService.acquire("pc-1", "bob"));
+        assertTrue(seatLeaseService.acquire("pc-1", "alice"));
+        assertEquals(1, waitlistService.getQueueSizes().get(ECategory.VIP));
+    }
+
+    @Test
+    @DisplayName("Computer in checkout keeps the line in place")
+    void testDispatch_leasedComputer() {
+        Computer computer = computer("pc-1", ECategory.VIP, EStatus.FREE);
+        when(computerRepository.findAllWithTypeByIdIn(List.of("pc-1"))).thenReturn(List.of(computer));
+        when(bookingAvailabilityService.isAvailable(eq("pc-1"), any(), any())).thenReturn(true);
+        seatLeaseService.acquire("pc-1", "carol");
+        waitlistService.join(ECategory.VIP, "alice");
+
+        waitlistService.dispatch(List.of("pc-1"));
+
+        assertEquals(1, waitlistService.getQueueSizes().get(ECategory.VIP));
+    }
+
+    @Test
+    @DisplayName("Computer in use is not offered")
+    void testDispatch_usedComputer() {
+        Computer computer = computer("pc-1", ECategory.VIP, EStatus.USED);
+        when(computerRepository.findAllWithTypeByIdIn(List.of("pc-1"))).thenReturn(List.of(computer));
+        waitlistService.join(ECategory.VIP, "alice");
+
+        waitlistService.dispatch(List.of("pc-1"));
+
+        verify(bookingAvailabilityService, never()).isAvailable(any(), any(), any());
+        assertEquals(1, waitlistService.getQueueSizes().get(ECategory.VIP));
+    }
+
+    @Test
+    @DisplayName("Rejoining keeps a single place in line")
+    void testJoin_rejoinKeepsPlace() {
+        waitlistService.join(ECategory.EXTREME, "alice");
+        waitlistService.join(ECategory.EXTREME, "bob");
+        waitlistService.join(ECategory.EXTREME, "alice");
+
+        assertEquals(2, waitlistService.getQueueSizes().get(ECategory.EXTREME));
+
+        waitlistService.leave(ECategory.EXTREME, "alice");
+
+        assertEquals(1, waitlistService.getQueueSizes().get(ECategory.EXTREME));
+    }
+
+    private Computer computer(String id, ECategory category, EStatus status) {
+        return Computer.builder()
+                .id(id)
+                .code(id.toUpperCase())
+                .status(status)
+                .type(Type.builder().category(category).build())
+                .build();
+    }
+}
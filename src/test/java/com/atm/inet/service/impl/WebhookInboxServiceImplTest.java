@@ -0,0 +1,99 @@
+package com.atm.inet.service.impl;
+
+import com.atm.inet.model.request.MidtransNotification;
+import com.atm.inet.repository.WebhookInboxRepository;
+import com.atm.inet.service.OrderDetailService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookInboxServiceImplTest {
+
+    @Mock
+    private WebhookInboxRepository webhookInboxRepository;
+
+    @Mock
+    private OrderDetailService orderDetailService;
+
+    private WebhookInboxServiceImpl webhookInboxService;
+
+    @BeforeEach
+    void setUp() {
+        webhookInboxService = new WebhookInboxServiceImpl(webhookInboxRepository, orderDetailService);
+        ReflectionTestUtils.setField(webhookInboxService, "workerCount", 2);
+        ReflectionTestUtils.setField(webhookInboxService, "queueCapacity", 16);
+        ReflectionTestUtils.setField(webhookInboxService, "batchSize", 4);
+        ReflectionTestUtils.setField(webhookInboxService, "dedupeSize", 100);
+        ReflectionTestUtils.setField(webhookInboxService, "dedupeMinutes", 60L);
+        ReflectionTestUtils.setField(webhookInboxService, "pollIntervalMillis", 60_000L);
+        ReflectionTestUtils.setField(webhookInboxService, "claimTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(webhookInboxService, "maxAttempts", 5);
+        webhookInboxService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        webhookInboxService.stop();
+    }
+
+    @Test
+    @DisplayName("Retried notification is applied once")
+    void testAccept_duplicateDropped() {
+        webhookInboxService.accept(notification("order-1", "settlement"), "{}");
+        webhookInboxService.accept(notification("order-1", "settlement"), "{}");
+        webhookInboxService.accept(notification("order-1", "expire"), "{}");
+
+        verify(orderDetailService, timeout(2_000)).applyStatus("order-1", "settlement");
+        verify(orderDetailService, timeout(2_000)).applyStatus("order-1", "expire");
+        verify(orderDetailService, times(1)).applyStatus("order-1", "settlement");
+        assertEquals(1L, webhookInboxService.getStats().getDuplicatesTotal());
+    }
+
+    @Test
+    @DisplayName("Failed update is moved to the inbox table for retry")
+    void testApply_failureSpills() {
+        doThrow(new IllegalStateException("database down")).when(orderDetailService).applyStatus("order-2", "settlement");
+
+        webhookInboxService.accept(notification("order-2", "settlement"), "{\"order_id\":\"order-2\"}");
+
+        verify(webhookInboxRepository, timeout(2_000)).upsertPending(eq("order-2|settlement"), eq("order-2"), eq("settlement"),
+                eq("{\"order_id\":\"order-2\"}"), eq(1), any(), any());
+    }
+
+    @Test
+    @DisplayName("Notification that could not be stored is accepted again on retry")
+    void testApply_spillFailureForgetsKey() {
+        doThrow(new IllegalStateException("database down")).when(orderDetailService).applyStatus("order-3", "settlement");
+        doThrow(new IllegalStateException("database down")).when(webhookInboxRepository)
+                .upsertPending(eq("order-3|settlement"), any(), any(), any(), eq(1), any(), any());
+
+        webhookInboxService.accept(notification("order-3", "settlement"), "{}");
+        verify(webhookInboxRepository, timeout(2_000)).upsertPending(eq("order-3|settlement"), any(), any(), any(), eq(1), any(), any());
+        verify(orderDetailService, timeout(2_000)).applyStatus("order-3", "settlement");
+
+        // the worker forgets the key right after the failed spill
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (webhookInboxService.getStats().getFailedTotal() == 0 && System.currentTimeMillis() < deadline) Thread.onSpinWait();
+        webhookInboxService.accept(notification("order-3", "settlement"), "{}");
+
+        verify(orderDetailService, timeout(2_000).times(2)).applyStatus("order-3", "settlement");
+        assertEquals(0L, webhookInboxService.getStats().getDuplicatesTotal());
+    }
+
+    private MidtransNotification notification(String orderId, String transactionStatus) {
+        return MidtransNotification.builder()
+                .orderId(orderId)
+                .transactionStatus(transactionStatus)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.atm.inet.service.payment;
+
+import com.atm.inet.model.request.MidtransNotification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MidtransServiceTest {
+
+    // SHA-512 of "order-1" + "200" + "30000.00" + "server-key"
+    private static final String SIGNATURE = "07ac3c58b0b5b4b220d903a5cd6a949ae18ce9e86f4374336a3bc8211d4e1ef6" +
+            "ebcef4dd5a68df8f3749792f84c88d218b1b5031a3601a19aa03f255b8076263";
+
+    private MidtransService midtransService;
+
+    @BeforeEach
+    void setUp() {
+        midtransService = new MidtransService(null, null);
+        ReflectionTestUtils.setField(midtransService, "serverKey", "server-key");
+    }
+
+    @Test
+    @DisplayName("Notification fields are read as sent")
+    void testParseNotification() {
+        MidtransNotification notification = midtransService.parseNotification(
+                "{\"order_id\":\"order-1\",\"status_code\":\"200\",\"gross_amount\":\"30000.00\"," +
+                        "\"transaction_status\":\"settlement\",\"signature_key\":\"abc\"}");
+
+        assertEquals("order-1", notification.getOrderId());
+        assertEquals("30000.00", notification.getGrossAmount());
+        assertEquals("settlement", notification.getTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("Notification with a missing field is rejected")
+    void testParseNotification_missingField() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> midtransService.parseNotification("{\"order_id\":\"order-1\"}"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatus());
+    }
+
+    @Test
+    @DisplayName("Signature is checked against the server key")
+    void testVerifySignature() {
+        MidtransNotification notification = MidtransNotification.builder()
+                .orderId("order-1")
+                .statusCode("200")
+                .grossAmount("30000.00")
+                .signatureKey(SIGNATURE)
+                .build();
+
+        assertDoesNotThrow(() -> midtransService.verifySignature(notification));
+
+        notification.setGrossAmount("1.00");
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> midtransService.verifySignature(notification));
+        assertEquals(HttpStatus.FORBIDDEN, exception.getStatus());
+    }
+}
@@ -0,0 +1,54 @@
+package com.atm.inet.service.payment;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymentGatewayGuardTest {
+
+    private PaymentGatewayGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        guard = new PaymentGatewayGuard(50, 80, 3000, 4, 4, 60, 1, 2, 0);
+    }
+
+    @Test
+    @DisplayName("Circuit opens after repeated gateway failures and fails fast with 503")
+    void testCall_opensOnFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResourceAccessException.class, () -> guard.call(() -> {
+                calls.incrementAndGet();
+                throw new ResourceAccessException("timed out");
+            }));
+        }
+
+        PaymentGatewayUnavailableException exception = assertThrows(PaymentGatewayUnavailableException.class,
+                () -> guard.call(calls::incrementAndGet));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(4, calls.get());
+        assertEquals("OPEN", guard.getStats().getState());
+    }
+
+    @Test
+    @DisplayName("Client errors do not count against the gateway")
+    void testCall_clientErrorsIgnored() {
+        for (int i = 0; i < 6; i++) {
+            assertThrows(HttpClientErrorException.class, () -> guard.call(() -> {
+                throw new HttpClientErrorException(HttpStatus.NOT_FOUND);
+            }));
+        }
+
+        assertEquals("CLOSED", guard.getStats().getState());
+        assertEquals("ok", guard.call(() -> "ok"));
+    }
+}
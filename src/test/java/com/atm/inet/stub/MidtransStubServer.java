@@ -0,0 +1,239 @@
+package com.atm.inet.stub;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded stand-in for the Midtrans sandbox, for offline load and latency runs. Serves Snap create
+ * (POST /snap/v1/transactions) and status (GET /v2/{orderId}/status), and once the settlement delay has passed
+ * moves a transaction to its final status and POSTs a signed notification to the webhook URL, the way Midtrans
+ * does. Every call waits the configured latency first and fails with a 500 at the configured error rate.
+ * <p>
+ * Point the application at it with icafe.midtrans.snap-url={@link #getSnapUrl()} and
+ * icafe.midtrans.api-url={@link #getApiUrl()}, using the same server key.
+ */
+public class MidtransStubServer implements AutoCloseable {
+
+    private final String serverKey;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final long settlementDelayMillis;
+    private final String finalStatus;
+
+    private final Map<String, Transaction> transactions = new ConcurrentHashMap<>();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong statusLookups = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong notificationsSent = new AtomicLong();
+    private final AtomicLong notificationsFailed = new AtomicLong();
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService settler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private HttpServer server;
+    private volatile String notificationUrl;
+
+    /**
+     * @param finalStatus transaction_status a transaction ends in after the settlement delay, e.g. settlement or expire
+     */
+    public MidtransStubServer(String serverKey, long latencyMillis, double errorRate, long settlementDelayMillis, String finalStatus) {
+        if (errorRate < 0 || errorRate > 1) throw new IllegalArgumentException("errorRate must be between 0 and 1");
+        this.serverKey = serverKey;
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.settlementDelayMillis = settlementDelayMillis;
+        this.finalStatus = finalStatus;
+    }
+
+    // port 0 picks a free port
+    public MidtransStubServer start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/snap/v1/transactions", this::handleCreate);
+        server.createContext("/v2/", this::handleStatus);
+        // a handler sleeps for the latency, every request gets its own thread
+        server.setExecutor(handlers);
+        server.start();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (server != null) server.stop(0);
+        settler.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    // the application port is only known after it started, notifications are held back until this is set
+    public void setNotificationUrl(String notificationUrl) {
+        this.notificationUrl = notificationUrl;
+    }
+
+    public String getSnapUrl() {
+        return baseUrl() + "/snap/v1/transactions";
+    }
+
+    public String getApiUrl() {
+        return baseUrl() + "/v2";
+    }
+
+    public Map<String, Long> getCounters() {
+        return Map.of(
+                "created", created.get(),
+                "statusLookups", statusLookups.get(),
+                "injectedErrors", injectedErrors.get(),
+                "notificationsSent", notificationsSent.get(),
+                "notificationsFailed", notificationsFailed.get());
+    }
+
+    private String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void handleCreate(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "{\"error_messages\":[\"Method not allowed\"]}");
+                return;
+            }
+            if (!simulateGateway(exchange)) return;
+
+            JSONObject details = new JSONObject(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8))
+                    .getJSONObject("transaction_details");
+            String orderId = details.getString("order_id");
+            Transaction transaction = new Transaction(orderId, details.getLong("gross_amount") + ".00");
+            if (transactions.putIfAbsent(orderId, transaction) != null) {
+                respond(exchange, 400, "{\"error_messages\":[\"transaction_details.order_id sudah digunakan\"]}");
+                return;
+            }
+            created.incrementAndGet();
+            settler.schedule(() -> settle(transaction), settlementDelayMillis, TimeUnit.MILLISECONDS);
+
+            String token = UUID.randomUUID().toString();
+            respond(exchange, 201, new JSONObject()
+                    .put("token", token)
+                    .put("redirect_url", baseUrl() + "/snap/v2/vtweb/" + token)
+                    .toString());
+        }
+    }
+
+    private void handleStatus(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // /v2/{orderId}/status
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            if (path.length != 4 || !"status".equals(path[3]) || !"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 404, "{\"status_code\":\"404\",\"status_message\":\"Not found\"}");
+                return;
+            }
+            if (!simulateGateway(exchange)) return;
+
+            statusLookups.incrementAndGet();
+            Transaction transaction = transactions.get(path[2]);
+            // Midtrans answers an unknown order with 200 and the error in the body
+            String body = transaction == null
+                    ? "{\"status_code\":\"404\",\"status_message\":\"Transaction doesn't exist.\"}"
+                    : transaction.toJson(false).toString();
+            respond(exchange, 200, body);
+        }
+    }
+
+    // waits the latency and returns false after answering with an injected error
+    private boolean simulateGateway(HttpExchange exchange) throws IOException {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.incrementAndGet();
+            respond(exchange, 500, "{\"error_messages\":[\"Sorry, we encountered internal server error.\"]}");
+            return false;
+        }
+        return true;
+    }
+
+    private void settle(Transaction transaction) {
+        transaction.status = finalStatus;
+        String url = notificationUrl;
+        if (url == null) return;
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(transaction.toJson(true).toString()))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error == null && response.statusCode() / 100 == 2) notificationsSent.incrementAndGet();
+                    else notificationsFailed.incrementAndGet();
+                });
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String statusCode(String transactionStatus) {
+        return switch (transactionStatus) {
+            case "settlement", "capture", "cancel" -> "200";
+            case "pending" -> "201";
+            case "deny" -> "202";
+            case "expire" -> "407";
+            default -> "200";
+        };
+    }
+
+    private static String sha512Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-512");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-512 is not available", e);
+        }
+    }
+
+    private final class Transaction {
+        private final String orderId;
+        private final String grossAmount;
+        private volatile String status = "pending";
+
+        private Transaction(String orderId, String grossAmount) {
+            this.orderId = orderId;
+            this.grossAmount = grossAmount;
+        }
+
+        private JSONObject toJson(boolean signed) {
+            String currentStatus = status;
+            String code = statusCode(currentStatus);
+            JSONObject json = new JSONObject()
+                    .put("order_id", orderId)
+                    .put("status_code", code)
+                    .put("gross_amount", grossAmount)
+                    .put("transaction_status", currentStatus);
+            if (signed) json.put("signature_key", sha512Hex(orderId + code + grossAmount + serverKey));
+            return json;
+        }
+    }
+}
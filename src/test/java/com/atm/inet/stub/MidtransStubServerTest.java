@@ -0,0 +1,82 @@
+package com.atm.inet.stub;
+
+import com.atm.inet.model.request.MidtransNotification;
+import com.atm.inet.model.response.PaymentResponse;
+import com.atm.inet.service.payment.MidtransService;
+import com.atm.inet.service.payment.PaymentGatewayGuard;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MidtransStubServerTest {
+
+    private static final String SERVER_KEY = "server-key";
+    private static final String TRANSACTION = "{\"transaction_details\":{\"order_id\":\"order-1\",\"gross_amount\":30000}}";
+
+    private MidtransStubServer stub;
+    private HttpServer webhook;
+
+    @AfterEach
+    void tearDown() {
+        if (stub != null) stub.close();
+        if (webhook != null) webhook.stop(0);
+    }
+
+    @Test
+    @DisplayName("Snap transaction settles after the delay and posts a notification that passes the signature check")
+    void testCreateAndSettle() throws Exception {
+        stub = new MidtransStubServer(SERVER_KEY, 0, 0, 200, "settlement").start(0);
+        CompletableFuture<String> received = new CompletableFuture<>();
+        webhook = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        webhook.createContext("/api/v1/midtrans", exchange -> {
+            received.complete(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        webhook.start();
+        stub.setNotificationUrl("http://localhost:" + webhook.getAddress().getPort() + "/api/v1/midtrans");
+        MidtransService midtransService = midtransService();
+
+        PaymentResponse payment = midtransService.createSnapTransaction(TRANSACTION);
+        assertNotNull(payment.getToken());
+        assertEquals("pending", new JSONObject(midtransService.getTransactionById("order-1")).getString("transaction_status"));
+
+        MidtransNotification notification = midtransService.parseNotification(received.get(5, TimeUnit.SECONDS));
+        assertEquals("order-1", notification.getOrderId());
+        assertEquals("settlement", notification.getTransactionStatus());
+        assertEquals("30000.00", notification.getGrossAmount());
+        assertDoesNotThrow(() -> midtransService.verifySignature(notification));
+        assertEquals("settlement", new JSONObject(midtransService.getTransactionById("order-1")).getString("transaction_status"));
+    }
+
+    @Test
+    @DisplayName("Injected errors surface as gateway 5xx responses")
+    void testErrorRate() throws Exception {
+        stub = new MidtransStubServer(SERVER_KEY, 0, 1, 0, "settlement").start(0);
+        MidtransService midtransService = midtransService();
+
+        assertThrows(HttpServerErrorException.class, () -> midtransService.createSnapTransaction(TRANSACTION));
+        assertEquals(1L, stub.getCounters().get("injectedErrors"));
+        assertEquals(0L, stub.getCounters().get("created"));
+    }
+
+    private MidtransService midtransService() {
+        MidtransService midtransService = new MidtransService(new RestTemplate(), new PaymentGatewayGuard(50, 80, 3000, 10, 10, 60, 1, 10, 0));
+        ReflectionTestUtils.setField(midtransService, "serverKey", SERVER_KEY);
+        ReflectionTestUtils.setField(midtransService, "snapUrl", stub.getSnapUrl());
+        ReflectionTestUtils.setField(midtransService, "apiUrl", stub.getApiUrl());
+        return midtransService;
+    }
+}
@@ -0,0 +1,45 @@
+package com.atm.inet.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringLruCacheTest {
+
+    @Test
+    @DisplayName("Entries are gone once their time to live passes")
+    void testGet_expiredEntry() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(4, 100);
+        cache.put("key", "value", 0);
+
+        assertEquals("value", cache.get("key", 99));
+        assertNull(cache.get("key", 100));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    @DisplayName("Least recently used entry is evicted when full")
+    void testPut_evictsLeastRecentlyUsed() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, 1_000);
+        cache.put("first", "1", 0);
+        cache.put("second", "2", 0);
+        cache.get("first", 10);
+        cache.put("third", "3", 20);
+
+        assertEquals("1", cache.get("first", 30));
+        assertNull(cache.get("second", 30));
+        assertEquals("3", cache.get("third", 30));
+    }
+
+    @Test
+    @DisplayName("Only the first put of a live key wins")
+    void testPutIfAbsent_liveKey() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(4, 100);
+
+        assertTrue(cache.putIfAbsent("key", "first", 0));
+        assertFalse(cache.putIfAbsent("key", "second", 50));
+        assertEquals("first", cache.get("key", 50));
+        assertTrue(cache.putIfAbsent("key", "third", 100));
+    }
+}
@@ -0,0 +1,52 @@
+package com.atm.inet.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>(100, 8, 0);
+    }
+
+    @Test
+    @DisplayName("Timers expire once their deadline has passed")
+    void testAdvance_expiresDueTimers() {
+        wheel.schedule("order-1", 250);
+        wheel.schedule("order-2", 500);
+
+        assertTrue(wheel.advance(200).isEmpty());
+        assertEquals(List.of("order-1"), wheel.advance(300));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("order-2"), wheel.advance(520));
+        assertEquals(20, wheel.getLastLagMillis());
+    }
+
+    @Test
+    @DisplayName("Timers beyond one revolution wait for their round")
+    void testAdvance_timerBeyondRevolution() {
+        wheel.schedule("order-1", 1_250);
+
+        assertTrue(wheel.advance(500).isEmpty());
+        assertTrue(wheel.advance(1_000).isEmpty());
+        assertEquals(List.of("order-1"), wheel.advance(1_300));
+    }
+
+    @Test
+    @DisplayName("Cancelled timers never expire")
+    void testCancel_removesTimer() {
+        wheel.schedule("order-1", 250);
+
+        assertTrue(wheel.cancel("order-1"));
+        assertTrue(wheel.advance(10_000).isEmpty());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.atm.inet.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceTableTest {
+
+    // 2024-01-01 is a Monday
+    private final LocalDateTime monday = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private final PriceTable table = new PriceTable("price-1", 10_000L, 18, 22, 20, 10, 10);
+
+    @Test
+    @DisplayName("Each hour is charged at its own peak or off-peak rate")
+    void testTotal_acrossPeakStart() {
+        assertEquals(10_000L + 12_000L + 12_000L, table.total(monday.plusHours(17), 3, false));
+        assertEquals(10_000L, table.total(monday.plusHours(22), 1, false));
+    }
+
+    @Test
+    @DisplayName("Weekend surcharge and member discount stack on the peak rate")
+    void testRate_weekendMember() {
+        LocalDateTime saturday = monday.plusDays(5);
+
+        assertEquals(13_200L, table.rate(saturday.plusHours(18), false));
+        assertEquals(11_880L, table.rate(saturday.plusHours(18), true));
+        assertEquals(9_000L, table.rate(monday.plusHours(9), true));
+    }
+
+    @Test
+    @DisplayName("Peak window can wrap past midnight")
+    void testTotal_wrappingPeak() {
+        PriceTable night = new PriceTable("price-2", 10_000L, 22, 2, 20, 0, 0);
+
+        assertEquals(24_000L, night.total(monday.plusHours(23), 2, false));
+        assertEquals(10_000L, night.total(monday.plusHours(2), 1, false));
+    }
+
+    @Test
+    @DisplayName("Invalid rules are rejected when the table is compiled")
+    void testConstructor_invalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> new PriceTable("p", 10_000L, 0, 0, 0, 0, 120));
+        assertThrows(IllegalArgumentException.class, () -> new PriceTable("p", 10_000L, 24, 0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new PriceTable("p", 0L, 0, 0, 0, 0, 0));
+    }
+}
@@ -0,0 +1,78 @@
+package com.atm.inet.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Concurrent calls for one key share a single load")
+    void testExecute_coalescesConcurrentCalls() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(pool.submit(() -> singleFlight.execute("order-1", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "settlement";
+                })));
+            }
+            // every caller but the loader is parked on the shared call
+            while (singleFlight.sharedCalls() < 3) Thread.onSpinWait();
+            release.countDown();
+
+            for (Future<String> result : results) assertEquals("settlement", result.get(2, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(0, singleFlight.inFlight());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Waiters get the loader's exception and the next call loads again")
+    void testExecute_sharesFailureThenReloads() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> loader = pool.submit(() -> singleFlight.execute("order-1", () -> {
+                await(release);
+                throw new IllegalStateException("gateway down");
+            }));
+            while (singleFlight.inFlight() == 0) Thread.onSpinWait();
+
+            CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> singleFlight.execute("order-1", () -> "unused"));
+            while (singleFlight.sharedCalls() == 0) Thread.onSpinWait();
+            release.countDown();
+
+            ExecutionException loaderFailure = assertThrows(ExecutionException.class, () -> loader.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, loaderFailure.getCause());
+            ExecutionException waiterFailure = assertThrows(ExecutionException.class, () -> waiter.get(2, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, waiterFailure.getCause());
+
+            assertEquals("pending", singleFlight.execute("order-1", () -> "pending"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
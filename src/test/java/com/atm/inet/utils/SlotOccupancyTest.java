@@ -0,0 +1,61 @@
+package com.atm.inet.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotOccupancyTest {
+
+    private LocalDateTime today;
+    private SlotOccupancy occupancy;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDateTime.of(2024, 1, 1, 0, 0);
+        occupancy = new SlotOccupancy(15, 2, today.plusHours(8));
+    }
+
+    @Test
+    @DisplayName("Computers booked inside the window are filtered out")
+    void testFree_overlappingBooking() {
+        occupancy.mark("pc-1", today.plusHours(19), today.plusHours(21));
+        occupancy.mark("pc-2", today.plusHours(17), today.plusHours(19));
+
+        assertEquals(List.of("pc-2", "pc-3"),
+                occupancy.free(List.of("pc-1", "pc-2", "pc-3"), today.plusHours(19), today.plusHours(23)));
+    }
+
+    @Test
+    @DisplayName("Partly used slot counts as booked")
+    void testFree_partialSlot() {
+        occupancy.mark("pc-1", today.plusHours(18), today.plusHours(19).plusMinutes(5));
+
+        assertTrue(occupancy.free(List.of("pc-1"), today.plusHours(19).plusMinutes(10), today.plusHours(20)).isEmpty());
+        assertEquals(List.of("pc-1"), occupancy.free(List.of("pc-1"), today.plusHours(19).plusMinutes(15), today.plusHours(20)));
+    }
+
+    @Test
+    @DisplayName("Cleared booking frees its slots")
+    void testClear_freesSlots() {
+        occupancy.mark("pc-1", today.plusHours(19), today.plusHours(21));
+        occupancy.clear("pc-1", today.plusHours(19), today.plusHours(21));
+
+        assertEquals(List.of("pc-1"), occupancy.free(List.of("pc-1"), today.plusHours(19), today.plusHours(21)));
+    }
+
+    @Test
+    @DisplayName("Rolling the horizon keeps tomorrow's bookings")
+    void testRoll_shiftsBookings() {
+        occupancy.mark("pc-1", today.plusDays(1).plusHours(10), today.plusDays(1).plusHours(12));
+
+        assertEquals(1, occupancy.roll(today.plusDays(1).plusHours(1)));
+        assertTrue(occupancy.free(List.of("pc-1"), today.plusDays(1).plusHours(11), today.plusDays(1).plusHours(13)).isEmpty());
+        assertFalse(occupancy.covers(today.plusHours(20), today.plusHours(21)));
+        assertTrue(occupancy.covers(today.plusDays(2).plusHours(20), today.plusDays(2).plusHours(21)));
+    }
+}